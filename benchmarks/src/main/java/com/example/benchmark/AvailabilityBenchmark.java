@@ -0,0 +1,145 @@
+package com.example.benchmark;
+
+import com.example.dto.AvailabilityGrid;
+import com.example.entity.Facility;
+import com.example.entity.Reservation;
+import com.example.repository.ReservationRepository;
+import com.example.service.FacilityService;
+import com.example.service.ReservationService;
+import com.example.service.SlotAvailabilityIndex;
+import com.example.service.SlotAvailabilityIndex.SlotKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Výpočet volných slotů při různé obsazenosti sportovišť.
+ * Repozitář rezervací vrací předem připravená data z paměti, měří se tedy jen výpočet v aplikaci:
+ * <ul>
+ *     <li>indexHit - dotaz na den, který už je v indexu obsazenosti (běžný případ),</li>
+ *     <li>indexMiss - den se do indexu načítá z výsledku repozitáře,</li>
+ *     <li>listRemoveBaseline - původní výpočet (nově sestavený seznam všech slotů a List.remove
+ *     pro každou rezervaci) pro srovnání,</li>
+ *     <li>weekGrid - týdenní mřížka dostupnosti pro všechna sportoviště (AvailabilityGrid).</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int FACILITIES = 3;
+    private static final int DAYS = 28;
+
+    /**
+     * Podíl obsazených slotů dne.
+     */
+    @Param({"0.1", "0.5", "0.9"})
+    public double density;
+
+    private final Map<SlotKey, List<Reservation>> reservations = new HashMap<>();
+    private SlotAvailabilityIndex slotIndex;
+    private ReservationService reservationService;
+    private List<Integer> facilityIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        FacilityService facilityService = Fixtures.facilityService(FACILITIES);
+        facilityIds = new ArrayList<>();
+        long seed = 0;
+        for (Facility facility : facilityService.findAll()) {
+            facilityIds.add(facility.getId());
+            for (int day = 0; day < DAYS; day++) {
+                LocalDate date = Fixtures.FIRST_DAY.plusDays(day);
+                reservations.put(new SlotKey(facility.getId(), date),
+                        Fixtures.reservations(facility, date, density, seed++));
+            }
+        }
+
+        ReservationRepository repository = Stubs.repository(ReservationRepository.class, Map.of(
+                "findByReservationDateAndFacilityId",
+                args -> reservations.getOrDefault(new SlotKey((Integer) args[1], (LocalDate) args[0]), List.of()),
+                "findByReservationDateBetweenAndFacilityIdIn",
+                args -> between((LocalDate) args[0], (LocalDate) args[1], (Collection<?>) args[2])));
+        // Index bez expirace během měření, jinak by se zásahy měnily ve výpadky
+        slotIndex = new SlotAvailabilityIndex(repository, facilityService, new SimpleMeterRegistry(),
+                1_000_000, Duration.ofDays(1));
+        reservationService = new ReservationService(repository, null, null, facilityService, slotIndex, null, null,
+                event -> { });
+        reservations.keySet().forEach(key -> slotIndex.occupiedSlots(key.facilityId(), key.date()));
+    }
+
+    @Benchmark
+    public List<String> indexHit() {
+        SlotKey key = nextKey();
+        return slotIndex.freeSlots(key.facilityId(), key.date());
+    }
+
+    @Benchmark
+    public List<String> indexMiss() {
+        SlotKey key = nextKey();
+        slotIndex.evict(key);
+        return slotIndex.freeSlots(key.facilityId(), key.date());
+    }
+
+    @Benchmark
+    public List<String> listRemoveBaseline() {
+        SlotKey key = nextKey();
+        List<String> slots = new ArrayList<>();
+        for (LocalTime time = LocalTime.of(8, 0); time.isBefore(LocalTime.of(20, 0)); time = time.plusMinutes(30)) {
+            slots.add(time.toString());
+        }
+        for (Reservation reservation : reservations.get(key)) {
+            LocalTime time = reservation.getStartTime().toLocalTime();
+            while (time.isBefore(reservation.getEndTime().toLocalTime())) {
+                slots.remove(time.toString());
+                time = time.plusMinutes(30);
+            }
+        }
+        return slots;
+    }
+
+    @Benchmark
+    public AvailabilityGrid weekGrid() {
+        LocalDate from = Fixtures.FIRST_DAY.plusDays(next++ % (DAYS - 6));
+        return reservationService.getAvailabilityGrid(facilityIds, from, from.plusDays(6));
+    }
+
+    private SlotKey nextKey() {
+        int index = next++;
+        return new SlotKey(facilityIds.get(index % FACILITIES), Fixtures.FIRST_DAY.plusDays((index / FACILITIES) % DAYS));
+    }
+
+    private List<Reservation> between(LocalDate from, LocalDate to, Collection<?> ids) {
+        List<Reservation> result = new ArrayList<>();
+        reservations.forEach((key, list) -> {
+            if (ids.contains(key.facilityId()) && !key.date().isBefore(from) && !key.date().isAfter(to)) {
+                result.addAll(list);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.benchmark;
+
+import com.example.entity.Facility;
+import com.example.entity.Reservation;
+import com.example.repository.FacilityClosureRepository;
+import com.example.repository.FacilityOpeningHoursRepository;
+import com.example.repository.FacilityRepository;
+import com.example.service.FacilityService;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Testovací data pro benchmarky: sportoviště s provozní dobou 8:00-20:00 po 30 minutách
+ * (24 slotů, stejně jako výchozí sportoviště v migracích) a rezervace se zadanou obsazeností.
+ */
+final class Fixtures {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 5);
+
+    private Fixtures() {
+    }
+
+    static Facility facility(int id) {
+        return new Facility(id, "Sportoviště " + id, LocalTime.of(8, 0), LocalTime.of(20, 0), 30);
+    }
+
+    static FacilityService facilityService(int count) {
+        List<Facility> facilities = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            facilities.add(facility(id));
+        }
+        return new FacilityService(
+                Stubs.repository(FacilityRepository.class, Map.of("findAll", args -> facilities)),
+                Stubs.repository(FacilityOpeningHoursRepository.class, Map.of("findAll", args -> List.of())),
+                Stubs.repository(FacilityClosureRepository.class, Map.of("findAll", args -> List.of())),
+                Duration.ofDays(1));  // Katalog se během měření neobnovuje
+    }
+
+    /**
+     * Vygeneruje rezervace jednoho dne. Každý slot je obsazen s pravděpodobností density,
+     * rezervace trvají jeden až tři sloty a nepřekrývají se (jako v databázi s exkluzním omezením).
+     * Generátor má pevné semínko, výsledky se tak dají porovnávat mezi běhy.
+     */
+    static List<Reservation> reservations(Facility facility, LocalDate date, double density, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int slotCount = 24;
+        List<Reservation> reservations = new ArrayList<>();
+        int slot = 0;
+        while (slot < slotCount) {
+            int length = 1 + random.nextInt(3);
+            if (random.nextDouble() < density) {
+                int end = Math.min(slotCount, slot + length);
+                Reservation reservation = new Reservation();
+                reservation.setFacility(facility);
+                reservation.setReservationDate(date);
+                reservation.setStartTime(date.atTime(8, 0).plusMinutes(30L * slot));
+                reservation.setEndTime(date.atTime(8, 0).plusMinutes(30L * end));
+                reservations.add(reservation);
+            }
+            slot += length;
+        }
+        return reservations;
+    }
+}
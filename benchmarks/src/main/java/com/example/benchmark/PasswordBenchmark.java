@@ -0,0 +1,83 @@
+package com.example.benchmark;
+
+import com.example.config.PasswordHashingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashování hesel a propustnost přihlášení s encoderem aplikace (BCrypt na omezeném executoru,
+ * viz PasswordHashingConfig). Přihlášení běží přes DaoAuthenticationProvider jako ve Spring Security,
+ * uživatel se načítá z paměti. Benchmark běží v osmi vláknech, aby se projevilo omezení executoru.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(8)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "heslo";
+
+    /**
+     * Cena BCrypt (app.password.bcrypt-strength).
+     */
+    @Param({"10", "12"})
+    public int strength;
+
+    private ThreadPoolExecutor executor;
+    private PasswordEncoder encoder;
+    private DaoAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor = config.passwordHashingExecutor(0, 64, registry);
+        encoder = config.passwordEncoder(strength, executor, registry);
+
+        UserDetails user = User.withUsername("jan@example.com")
+                .password(encoder.encode(PASSWORD))
+                .roles("USER")
+                .build();
+        provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(username -> user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("jan@example.com", PASSWORD));
+    }
+}
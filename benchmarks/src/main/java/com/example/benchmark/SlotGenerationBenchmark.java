@@ -0,0 +1,84 @@
+package com.example.benchmark;
+
+import com.example.service.FacilityService;
+import com.example.service.SlotGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Časové sloty jednoho dne: vyhledání předpočítaného rozložení slotů v provozním kalendáři sportoviště,
+ * sestavení nového rozložení (to se děje jen při načtení kalendářů) a převod bitové mapy obsazenosti
+ * na volné sloty (SlotGrid).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotGenerationBenchmark {
+
+    /**
+     * Podíl obsazených slotů dne.
+     */
+    @Param({"0.0", "0.5", "0.9"})
+    public double density;
+
+    private FacilityService facilityService;
+    private SlotGrid grid;
+    private long occupied;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        facilityService = Fixtures.facilityService(1);
+        LocalDate day = Fixtures.FIRST_DAY;
+        grid = facilityService.getSlotGrid(1, day);
+        occupied = Fixtures.reservations(Fixtures.facility(1), day, density, 42).stream()
+                .mapToLong(reservation -> grid.maskOf(reservation.getStartTime(), reservation.getEndTime()))
+                .reduce(0L, (a, b) -> a | b);
+        start = day.atTime(10, 30);
+        end = day.atTime(12, 0);
+    }
+
+    @Benchmark
+    public SlotGrid gridLookup() {
+        return facilityService.getSlotGrid(1, Fixtures.FIRST_DAY);
+    }
+
+    @Benchmark
+    public SlotGrid buildGrid() {
+        return SlotGrid.of(LocalTime.of(8, 0), LocalTime.of(20, 0), 30);
+    }
+
+    @Benchmark
+    public List<String> freeSlots() {
+        return grid.freeSlots(occupied);
+    }
+
+    @Benchmark
+    public String freeString() {
+        return grid.freeString(occupied);
+    }
+
+    @Benchmark
+    public long maskOf() {
+        return grid.maskOf(start, end);
+    }
+}
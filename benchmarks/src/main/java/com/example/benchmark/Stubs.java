@@ -0,0 +1,37 @@
+package com.example.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Náhrady repozitářů pro benchmarky bez databáze.
+ * Repozitář je dynamická proxy, která odpovídá jen na vyjmenované metody - benchmark tak měří
+ * výpočet v aplikaci, ne dotazy. Volání jiné metody skončí výjimkou, aby nezůstalo nepovšimnuto.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Vytvoří náhradu rozhraní repozitáře.
+     * @param type Rozhraní repozitáře.
+     * @param answers Odpovědi podle názvu metody (parametrem jsou argumenty volání).
+     */
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+        return type.cast(proxy);
+    }
+}
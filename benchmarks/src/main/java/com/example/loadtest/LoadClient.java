@@ -0,0 +1,167 @@
+package com.example.loadtest;
+
+import com.example.loadtest.LoadReport.Outcome;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Jeden simulovaný uživatel: vlastní HTTP klient s cookies (session), požadavky na endpointy aplikace
+ * tak, jak je posílá prohlížeč, a zápis výsledku každého požadavku do LoadReport.
+ * Přesměrování se nenásledují - výsledek se posuzuje podle přesměrování, které aplikace vrátila.
+ */
+final class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final URI base;
+    private final LoadReport report;
+    private final String phase;
+    private final Map<String, String> etags = new HashMap<>();  // ETag posledních volných slotů (jako cache prohlížeče)
+
+    LoadClient(URI base, LoadReport report, String phase) {
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(TIMEOUT)
+                .build();
+        this.base = base;
+        this.report = report;
+        this.phase = phase;
+    }
+
+    /**
+     * Registrace (AuthController). Úspěch je přesměrování na /register?success.
+     */
+    boolean register(String firstName, String lastName, String email, String password) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("firstName", firstName);
+        form.put("lastName", lastName);
+        form.put("email", email);
+        form.put("password", password);
+        return send("POST /register/save", post("/register/save", form),
+                response -> redirect(response, "/register?success")) == Outcome.OK;
+    }
+
+    /**
+     * Přihlášení formulářem. Se správným heslem je odmítnutí (/login?error) možné jen při přetížení
+     * hashování hesel, počítá se tedy jako odmítnutí, ne jako chyba.
+     */
+    boolean login(String email, String password) {
+        return send("POST /login", post("/login", Map.of("username", email, "password", password)),
+                response -> response.statusCode() == 302
+                        ? location(response).contains("error") ? Outcome.REJECTED : Outcome.OK
+                        : Outcome.ERROR) == Outcome.OK;
+    }
+
+    /**
+     * Dotaz na volné sloty (JSON) s podmíněným požadavkem podle ETagu, jako dělá stránka rezervací.
+     */
+    void availableSlots(int facilityId, LocalDate date) {
+        String path = "/reservations/availableSlots?facilityId=" + facilityId + "&date=" + date;
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        String etag = etags.get(path);
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        send("GET /reservations/availableSlots", request.GET().build(), response -> {
+            if (response.statusCode() == 200) {
+                response.headers().firstValue("ETag").ifPresent(value -> etags.put(path, value));
+                return Outcome.OK;
+            }
+            return response.statusCode() == 304 ? Outcome.OK : Outcome.ERROR;
+        });
+    }
+
+    /**
+     * Vytvoření rezervace. Úspěch je přesměrování na seznam rezervací, při kolizi aplikace
+     * znovu vykreslí formulář s chybou (200) - to je očekávané odmítnutí.
+     */
+    void book(int facilityId, LocalDate date, LocalTime start, LocalTime end) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("facilityId", String.valueOf(facilityId));
+        form.put("date", date.toString());
+        form.put("startTime", start.toString());
+        form.put("endTime", end.toString());
+        form.put("note", "zátěžový test");
+        send("POST /reservations/save", post("/reservations/save", form), response -> switch (response.statusCode()) {
+            case 302 -> location(response).endsWith("/reservations") ? Outcome.OK : Outcome.ERROR;
+            case 200 -> Outcome.REJECTED;
+            default -> Outcome.ERROR;
+        });
+    }
+
+    /**
+     * Stránka s rezervacemi přihlášeného uživatele (ReservationController).
+     */
+    void reservationsPage() {
+        page("GET /reservations", "/reservations");
+    }
+
+    /**
+     * Administrace s první stránkou všech rezervací (AdminController).
+     */
+    void adminPage() {
+        page("GET /admin", "/admin");
+    }
+
+    private void page(String endpoint, String path) {
+        send(endpoint, HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET().build(),
+                response -> response.statusCode() == 200 ? Outcome.OK : Outcome.ERROR);
+    }
+
+    private HttpRequest post(String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private Outcome send(String endpoint, HttpRequest request, Function<HttpResponse<String>, Outcome> classify) {
+        long start = System.nanoTime();
+        Outcome outcome;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            outcome = response.statusCode() >= 500 ? Outcome.ERROR : classify.apply(response);
+        } catch (IOException e) {
+            outcome = Outcome.ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Outcome.ERROR;
+        }
+        report.record(phase, endpoint, System.nanoTime() - start, outcome);
+        return outcome;
+    }
+
+    private static Outcome redirect(HttpResponse<String> response, String expected) {
+        if (response.statusCode() == 302) {
+            return location(response).endsWith(expected) ? Outcome.OK : Outcome.ERROR;
+        }
+        return response.statusCode() == 200 ? Outcome.REJECTED : Outcome.ERROR;  // Formulář vrácen s chybou
+    }
+
+    private static String location(HttpResponse<String> response) {
+        return response.headers().firstValue("Location").orElse("");
+    }
+}
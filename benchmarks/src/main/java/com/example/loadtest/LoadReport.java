@@ -0,0 +1,127 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Výsledky zátěžového testu po fázích a endpointech: počet požadavků, propustnost,
+ * latence (p50, p99, max) a počty odmítnutých a chybných odpovědí.
+ * Měření drží Micrometer timery a čítače (SimpleMeterRegistry), percentily se počítají
+ * z histogramu za celou dobu fáze.
+ */
+final class LoadReport {
+
+    /**
+     * Výsledek jednoho požadavku.
+     * REJECTED je očekávané odmítnutí aplikací (kolize rezervace, přihlášení odmítnuté při přetížení),
+     * ERROR je chyba serveru, neočekávaná odpověď nebo výpadek spojení.
+     */
+    enum Outcome {
+        OK, REJECTED, ERROR
+    }
+
+    /**
+     * Jeden řádek výsledků (fáze a endpoint), ve stejném tvaru se zapisuje i do JSON.
+     */
+    record Row(String phase, String endpoint, long requests, double throughput,
+               double p50Ms, double p99Ms, double maxMs, long rejected, long errors, double errorRate) {
+    }
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, Duration> phases = new LinkedHashMap<>();
+    private final Map<String, List<String>> endpoints = new LinkedHashMap<>();
+
+    void record(String phase, String endpoint, long nanos, Outcome outcome) {
+        timer(phase, endpoint).record(nanos, TimeUnit.NANOSECONDS);
+        counter(phase, endpoint, outcome).increment();
+    }
+
+    /**
+     * Uzavře fázi - její délka je základem pro výpočet propustnosti.
+     */
+    void phaseFinished(String phase, Duration elapsed) {
+        phases.put(phase, elapsed);
+    }
+
+    List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        phases.forEach((phase, elapsed) -> {
+            for (String endpoint : endpoints.getOrDefault(phase, List.of())) {
+                Timer timer = timer(phase, endpoint);
+                long requests = timer.count();
+                long rejected = (long) counter(phase, endpoint, Outcome.REJECTED).count();
+                long errors = (long) counter(phase, endpoint, Outcome.ERROR).count();
+                double p50 = 0;
+                double p99 = 0;
+                for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                    if (percentile.percentile() == 0.5) {
+                        p50 = percentile.value(TimeUnit.MILLISECONDS);
+                    } else if (percentile.percentile() == 0.99) {
+                        p99 = percentile.value(TimeUnit.MILLISECONDS);
+                    }
+                }
+                double max = timer.max(TimeUnit.MILLISECONDS);
+                // Percentily jsou odhad z histogramu a mohou mírně přesáhnout skutečné maximum
+                rows.add(new Row(phase, endpoint, requests, requests / (elapsed.toNanos() / 1e9),
+                        Math.min(p50, max), Math.min(p99, max), max, rejected, errors,
+                        requests == 0 ? 0 : (double) errors / requests));
+            }
+        });
+        return rows;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-12s %-36s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "fáze", "endpoint", "požadavků", "req/s", "p50 ms", "p99 ms", "max ms", "odmítnuto", "chyby", "chyb %");
+        for (Row row : rows()) {
+            out.printf("%-12s %-36s %9d %9.1f %9.2f %9.2f %9.2f %9d %7d %7.2f%n",
+                    row.phase(), row.endpoint(), row.requests(), row.throughput(),
+                    row.p50Ms(), row.p99Ms(), row.maxMs(), row.rejected(), row.errors(), row.errorRate() * 100);
+        }
+    }
+
+    void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), rows());
+    }
+
+    private Timer timer(String phase, String endpoint) {
+        synchronized (endpoints) {
+            List<String> known = endpoints.computeIfAbsent(phase, p -> new ArrayList<>());
+            if (!known.contains(endpoint)) {
+                known.add(endpoint);
+            }
+        }
+        return Timer.builder("loadtest.request")
+                .tag("phase", phase)
+                .tag("endpoint", endpoint)
+                .publishPercentiles(0.5, 0.99)
+                .distributionStatisticExpiry(Duration.ofDays(1))  // Percentily za celý běh, ne za posledních pár minut
+                .distributionStatisticBufferLength(1)
+                .register(registry);
+    }
+
+    private Counter counter(String phase, String endpoint, Outcome outcome) {
+        return Counter.builder("loadtest.outcome")
+                .tag("phase", phase)
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome.name())
+                .register(registry);
+    }
+}
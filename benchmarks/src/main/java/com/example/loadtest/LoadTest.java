@@ -0,0 +1,184 @@
+package com.example.loadtest;
+
+import com.example.RezervaceSportApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zátěžový test celé aplikace. Spustí vestavěnou databázi PostgreSQL, nad ní aplikaci s profilem
+ * loadtest (migrace Flyway vytvoří schéma i sportoviště) a z mnoha souběžných klientů volá skutečné
+ * kontrolery přes HTTP. Fáze:
+ * <ol>
+ *     <li>registrace - založení uživatelů přes registrační formulář,</li>
+ *     <li>login-storm - všichni klienti se opakovaně přihlašují (BCrypt na omezeném executoru),</li>
+ *     <li>browse - přihlášení klienti se dotazují na volné sloty, rezervují oblíbená sportoviště
+ *     v příštích dnech (kolize jsou záměrné) a prohlíží stránky rezervací a administrace.</li>
+ * </ol>
+ * Parametry (systémové vlastnosti): loadtest.clients (výchozí 32), loadtest.users (100),
+ * loadtest.duration - délka fází login-storm a browse (20s), loadtest.output - soubor s výsledky v JSON.
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "heslo-zatez";
+    private static final int POPULAR_FACILITY = 1;  // Tělocvična
+    private static final int SLOTS = 24;  // 8:00-20:00 po 30 minutách
+
+    private final URI base;
+    private final LoadReport report = new LoadReport();
+    private final int clients;
+    private final List<String> emails = new ArrayList<>();
+
+    private LoadTest(URI base, int clients) {
+        this.base = base;
+        this.clients = clients;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 32);
+        int users = Integer.getInteger("loadtest.users", 100);
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "20s"));
+        Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest-result.json"));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext application = startApplication(postgres)) {
+            URI base = URI.create("http://localhost:" + application.getEnvironment().getProperty("local.server.port"));
+            LoadTest test = new LoadTest(base, clients);
+            test.register(users);
+            test.loginStorm(duration);
+            test.browse(duration);
+
+            test.report.print(System.out);
+            test.report.writeJson(output);
+            System.out.println("Výsledky uloženy do " + output.toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres) {
+        SpringApplication application = new SpringApplication(RezervaceSportApplication.class);
+        application.setAdditionalProfiles("loadtest");
+        return application.run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+    }
+
+    /**
+     * Založí uživatele. První registrace proběhne samostatně, protože zakládá výchozí roli.
+     */
+    private void register(int users) throws Exception {
+        for (int i = 0; i < users; i++) {
+            emails.add("zatez" + i + "@example.com");
+        }
+        String phase = "registrace";
+        AtomicLong next = new AtomicLong(1);
+        LoadClient first = new LoadClient(base, report, phase);
+        first.register("Zátěž", "0", emails.get(0), PASSWORD);
+        run(phase, Math.min(clients, users), null, null, (client, random) -> {
+            long index = next.getAndIncrement();
+            if (index >= users) {
+                return false;
+            }
+            client.register("Zátěž", String.valueOf(index), emails.get((int) index), PASSWORD);
+            return true;
+        });
+    }
+
+    private void loginStorm(Duration duration) throws Exception {
+        run("login-storm", clients, duration, null, (client, random) -> {
+            client.login(emails.get(random.nextInt(emails.size())), PASSWORD);
+            return true;
+        });
+    }
+
+    /**
+     * Smíšený provoz přihlášených uživatelů: 60 % dotazů na volné sloty, 15 % rezervací,
+     * 15 % stránky rezervací a 10 % administrace. Tři čtvrtiny dotazů a rezervací míří
+     * na nejoblíbenější sportoviště v příštích třech dnech.
+     */
+    private void browse(Duration duration) throws Exception {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        run("browse", clients, duration, (client, index) -> client.login(emails.get(index % emails.size()), PASSWORD),
+                (client, random) -> {
+                    int facilityId = random.nextInt(4) < 3 ? POPULAR_FACILITY : 2 + random.nextInt(2);
+                    LocalDate date = tomorrow.plusDays(random.nextInt(3));
+                    int action = random.nextInt(100);
+                    if (action < 60) {
+                        client.availableSlots(facilityId, date);
+                    } else if (action < 75) {
+                        int slot = random.nextInt(SLOTS - 1);
+                        LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * slot);
+                        client.book(facilityId, date, start, start.plusMinutes(30L * (1 + random.nextInt(2))));
+                    } else if (action < 90) {
+                        client.reservationsPage();
+                    } else {
+                        client.adminPage();
+                    }
+                    return true;
+                });
+    }
+
+    /**
+     * Jeden krok klienta (jeden nebo více požadavků), vrací false, když klient už nemá co dělat.
+     */
+    @FunctionalInterface
+    private interface Step {
+        boolean run(LoadClient client, ThreadLocalRandom random);
+    }
+
+    /**
+     * Příprava klienta před začátkem měření (např. přihlášení), dostává pořadí klienta.
+     */
+    @FunctionalInterface
+    private interface Setup {
+        void run(LoadClient client, int index);
+    }
+
+    /**
+     * Spustí fázi: každý klient má vlastní vlákno a session, po přípravě všichni začnou současně
+     * (akce bariéry proběhne jednou, než se klienti rozběhnou) a opakují krok do konce fáze.
+     * Bez zadané délky fáze běží, dokud krok nevrátí false.
+     */
+    private void run(String phase, int clientCount, Duration duration, Setup setup, Step step) throws Exception {
+        AtomicLong started = new AtomicLong();
+        CyclicBarrier barrier = new CyclicBarrier(clientCount, () -> started.set(System.nanoTime()));
+        ExecutorService executor = Executors.newFixedThreadPool(clientCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < clientCount; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    LoadClient client = new LoadClient(base, report, phase);
+                    if (setup != null) {
+                        setup.run(client, index);
+                    }
+                    barrier.await();
+                    long deadline = started.get() + (duration != null ? duration.toNanos() : 0);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while ((duration == null || System.nanoTime() - deadline < 0) && step.run(client, random)) {
+                        // Klient opakuje krok až do konce fáze
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        report.phaseFinished(phase, Duration.ofNanos(System.nanoTime() - started.get()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * PasswordEncoder, který výpočetně náročné hashování a ověřování hesel provádí na vyhrazeném omezeném
+ * executoru. Souběžně tak běží nejvýše tolik výpočtů, kolik má executor vláken, a požadavky navíc čekají
+ * v omezené frontě. Když je plná i fronta, přihlášení rychle selže místo toho, aby se hromadila vlákna
+ * Tomcatu čekající na procesor.
+ * <p>
+ * Omezení: volající vlákno (při přihlášení vlákno Tomcatu) na výsledek dál čeká přes Future.get(), po celou
+ * dobu výpočtu bcryptu je tedy obsazené. Třída neuvolňuje vlákna požadavků, jen omezuje souběžnost výpočtů
+ * na počet jader a při přetížení rychle odmítá (backpressure). Přihlašovací filtr Spring Security
+ * je synchronní, skutečně asynchronní přihlášení by vyžadovalo vlastní přihlašovací endpoint.
+ * <p>
+ * Doba výpočtu včetně čekání ve frontě se měří metrikou password.hash, odmítnuté požadavky
+ * počítá password.hash.rejected.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String BUSY_MESSAGE = "Server je momentálně přetížen, zkuste to prosím za chvíli znovu.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolExecutor executor, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.encodeTimer = hashTimer(registry, "encode");
+        this.matchesTimer = hashTimer(registry, "matches");
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Požadavky na hashování odmítnuté kvůli plné frontě")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Zjištění, zda je hash potřeba přepočítat, je levné (jen čte prefix a cenu), proto běží přímo.
+     * Při plné frontě se přepočet odloží na některé další přihlášení - jinak by odmítnutý přepočet
+     * shodil přihlášení se správným heslem.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword) && executor.getQueue().remainingCapacity() > 0;
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        Timer.Sample sample = Timer.start();
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthenticationServiceException(BUSY_MESSAGE, e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException(BUSY_MESSAGE, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("password.hash")
+                .description("Doba hashování a ověření hesla včetně čekání ve frontě")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource, který omezuje počet současně otevřených spojení férovým semaforem o velikosti poolu.
+ * S virtuálními vlákny může na spojení čekat tisíce požadavků; takhle čekají ve frontě semaforu
+ * (bez pinningu nosných vláken) místo uvnitř poolu a po vypršení limitu rychle selžou.
+ * Obaluje Hikari přes DelegatingDataSource, takže metriky poolu a unwrap dál fungují.
+ */
+public class ConnectionGateDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int size;
+    private final Duration timeout;
+
+    public ConnectionGateDataSource(DataSource target, int size, Duration timeout) {
+        super(target);
+        this.permits = new Semaphore(size, true);
+        this.size = size;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Žádné volné spojení do databáze do " + timeout.toMillis() + " ms (limit " + size + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Čekání na spojení do databáze bylo přerušeno.", e);
+        }
+    }
+
+    /**
+     * Obalí spojení tak, aby jeho zavření (vrácení do poolu) uvolnilo povolení - právě jednou.
+     * Proxy implementuje ConnectionProxy, takže Spring (DataSourceUtils) i kód volající unwrap/isWrapperFor
+     * se dostanou k původnímu spojení poolu.
+     */
+    private Connection gated(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new GatedConnectionHandler(connection));
+    }
+
+    private final class GatedConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        GatedConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    /**
+     * Metriky saturace: kolik povolení je volných a kolik vláken čeká na spojení.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.gate.available", permits, Semaphore::availablePermits)
+                .description("Volná povolení pro spojení do databáze")
+                .register(registry);
+        Gauge.builder("db.gate.waiting", permits, Semaphore::getQueueLength)
+                .description("Vlákna čekající na spojení do databáze")
+                .register(registry);
+        Gauge.builder("db.gate.limit", () -> size)
+                .description("Maximální počet současných spojení do databáze")
+                .register(registry);
+    }
+}
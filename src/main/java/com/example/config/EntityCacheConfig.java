@@ -0,0 +1,64 @@
+package com.example.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Properties;
+
+/**
+ * Druhoúrovňová cache Hibernate (JCache nad Caffeine) pro téměř neměnná referenční data:
+ * role, uživatele i s jejich rolemi, sportoviště a výsledky dotazů označených jako cacheable
+ * (RoleRepository.findByName, UserRepository.findByEmail).
+ * Regiony se zakládají zde, s omezenou velikostí a expirací; Hibernate s chybějícím regionem
+ * nenastartuje (hibernate.javax.cache.missing_cache_strategy=fail), takže překlep v názvu regionu
+ * v @Cache se projeví hned. Zápisy přes Hibernate regiony udržují samy, zápisy mimo Hibernate
+ * zneplatňuje EntityCache. Statistiky: /admin/stats/entity-cache a hibernate.* v /actuator/prometheus.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String ROLES = "roles";
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "users.roles";
+    public static final String FACILITIES = "facilities";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${app.entity-cache.max-size:10000}") long maxSize,
+                                           @Value("${app.entity-cache.ttl:10m}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                provider.getDefaultURI(), getClass().getClassLoader(), new Properties());
+
+        for (String region : new String[] {ROLES, USERS, USER_ROLES, FACILITIES, QUERY_RESULTS}) {
+            cacheManager.createCache(region, bounded(maxSize, ttl));
+        }
+        // Časy posledních změn tabulek se nesmí vyřazovat, jinak by cache dotazů mohla vracet zastaralé výsledky
+        cacheManager.createCache(UPDATE_TIMESTAMPS, new CaffeineConfiguration<>().setStatisticsEnabled(true));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.config;
+
+import com.example.dto.UserIdentity;
+import com.example.service.UserIdentityCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filtr bezstavového režimu: přihlásí požadavek podle tokenu z hlavičky Authorization nebo z cookie.
+ * Identita a role se berou přímo z ověřeného tokenu, uživatel se z databáze nenačítá.
+ * Token, kterému uběhla víc než polovina platnosti, se obnoví (posuvné přihlášení) - ale jen podle aktuální
+ * identity z UserIdentityCache: smazaný uživatel nebo uživatel se změněnými rolemi obnovený token nedostane,
+ * cookie se smaže a požadavek pokračuje jako nepřihlášený.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtService jwtService;
+    private final UserIdentityCache userIdentityCache;
+
+    public JwtAuthenticationFilter(JwtService jwtService, UserIdentityCache userIdentityCache) {
+        this.jwtService = jwtService;
+        this.userIdentityCache = userIdentityCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String value = jwtService.resolve(request);
+        JwtService.Token token = value == null ? null : jwtService.parse(value);
+
+        if (token != null && jwtService.shouldRenew(token)) {
+            UserIdentity current = userIdentityCache.get(token.identity().email());
+            if (isSameAccount(token.identity(), current)) {
+                jwtService.writeCookie(request, response, jwtService.issue(current));
+            } else {
+                jwtService.clearCookie(request, response);
+                token = null;
+            }
+        }
+
+        if (token != null) {
+            List<SimpleGrantedAuthority> authorities = token.identity().roles().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+            // Stejný typ principalu jako při přihlášení formulářem, kontrolery ho čtou přes @AuthenticationPrincipal
+            User principal = new User(token.identity().email(), "", authorities);
+            UsernamePasswordAuthenticationToken authentication =
+                    UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Zda aktuální identita patří ke stejnému účtu se stejnými rolemi jako token. Změna jména obnovení nebrání,
+     * nový token ponese aktuální jméno.
+     */
+    private static boolean isSameAccount(UserIdentity fromToken, UserIdentity current) {
+        return current != null
+                && current.id().equals(fromToken.id())
+                && Set.copyOf(current.roles()).equals(Set.copyOf(fromToken.roles()));
+    }
+}
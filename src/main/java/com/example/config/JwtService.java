@@ -0,0 +1,162 @@
+package com.example.config;
+
+import com.example.dto.UserIdentity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Vydávání a ověřování podepsaných tokenů (JWT, HMAC-SHA) pro bezstavový režim přihlášení
+ * (app.security.mode=jwt). Token nese ID, jméno a role uživatele, takže jeho ověření nepotřebuje
+ * databázi ani HttpSession; přihlášení tak platí na každé instanci aplikace se stejným klíčem. Ostatní stav
+ * (index obsazenosti slotů, kanály SSE, cache identit a entit) je ale v paměti každé instance zvlášť, takže
+ * při více instancích se změny jinde projeví až po expiraci cache. Odběratelé SSE dostávají jen změny
+ * rezervací zapsaných na instanci, ke které jsou připojeni - rezervace z ostatních instancí neuvidí,
+ * dokud se nezavede předávání událostí mezi instancemi.
+ * Klíč i parser se sestaví jednou při startu a sdílí se mezi vlákny.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.mode", havingValue = "jwt")
+public class JwtService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_ROLES = "roles";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration ttl;
+    private final String cookieName;
+
+    public JwtService(@Value("${app.jwt.secret:}") String secret,
+                      @Value("${app.jwt.ttl:15m}") Duration ttl,
+                      @Value("${app.jwt.cookie-name:AUTH_TOKEN}") String cookieName) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("Režim app.security.mode=jwt vyžaduje app.jwt.secret (Base64, alespoň 256 bitů).");
+        }
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.ttl = ttl;
+        this.cookieName = cookieName;
+    }
+
+    /**
+     * Ověřený obsah tokenu.
+     * @param identity Identita uživatele z tokenu.
+     * @param expiresAt Okamžik vypršení platnosti tokenu.
+     */
+    public record Token(UserIdentity identity, Instant expiresAt) {
+    }
+
+    /**
+     * Vydá nový token pro uživatele.
+     */
+    public String issue(UserIdentity identity) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(identity.email())
+                .claim(CLAIM_USER_ID, identity.id())
+                .claim(CLAIM_NAME, identity.name())
+                .claim(CLAIM_ROLES, identity.roles())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Ověří podpis a platnost tokenu.
+     * @param token Token z hlavičky nebo cookie.
+     * @return Obsah tokenu, nebo null, pokud je token neplatný nebo vypršel.
+     */
+    public Token parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            List<?> roles = claims.get(CLAIM_ROLES, List.class);
+            UserIdentity identity = new UserIdentity(
+                    claims.get(CLAIM_USER_ID, Number.class).longValue(),
+                    claims.get(CLAIM_NAME, String.class),
+                    claims.getSubject(),
+                    roles == null ? List.of() : roles.stream().map(String::valueOf).toList());
+            return new Token(identity, claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Najde token v požadavku - nejdřív v hlavičce Authorization: Bearer, pak v cookie.
+     * @return Token, nebo null, pokud ho požadavek nenese.
+     */
+    public String resolve(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (cookieName.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Zapíše token do HttpOnly cookie s dobou platnosti tokenu.
+     */
+    public void writeCookie(HttpServletRequest request, HttpServletResponse response, String token) {
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(cookieName, token)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(ttl)
+                .build()
+                .toString());
+    }
+
+    /**
+     * Smaže cookie s tokenem (token už nemá být obnoven ani používán).
+     */
+    public void clearCookie(HttpServletRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(cookieName, "")
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(0)
+                .build()
+                .toString());
+    }
+
+    /**
+     * Zda se má token obnovit - obnovuje se, když uběhla víc než polovina jeho platnosti.
+     */
+    public boolean shouldRenew(Token token) {
+        return Instant.now().isAfter(token.expiresAt().minus(ttl.dividedBy(2)));
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+}
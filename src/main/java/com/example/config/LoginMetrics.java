@@ -0,0 +1,43 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Počítá úspěšná a neúspěšná přihlášení (metrika auth.login, tagy result a reason)
+ * z událostí, které Spring Security vydává při ověření jména a hesla.
+ */
+@Component
+public class LoginMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter success;
+
+    public LoginMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.success = Counter.builder("auth.login")
+                .description("Pokusy o přihlášení")
+                .tag("result", "success")
+                .tag("reason", "none")
+                .register(registry);
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        success.increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        Counter.builder("auth.login")
+                .description("Pokusy o přihlášení")
+                .tag("result", "failure")
+                .tag("reason", event.getException().getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+}
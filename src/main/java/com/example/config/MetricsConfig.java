@@ -0,0 +1,57 @@
+package com.example.config;
+
+import com.example.service.FacilityTagResolver;
+import io.micrometer.common.annotation.ValueExpressionResolver;
+import io.micrometer.core.aop.MeterTagAnnotationHandler;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Konfigurace metrik (Micrometer, export přes /actuator/prometheus).
+ * Zapíná @Timed na službách včetně tagů z parametrů (@MeterTag, např. ID sportoviště)
+ * a počítání SQL příkazů na požadavek (QueryCountInspector).
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final QueryCountInspector queryCountInspector;
+
+    public MetricsConfig(QueryCountInspector queryCountInspector) {
+        this.queryCountInspector = queryCountInspector;
+    }
+
+    /**
+     * Aspekt pro @Timed. Hodnoty tagů @MeterTag z parametrů požadavku musí projít resolverem, který
+     * propustí jen známé hodnoty (FacilityTagResolver), jinak by počet časových řad rostl bez omezení.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry, FacilityTagResolver facilityTagResolver) {
+        TimedAspect aspect = new TimedAspect(registry);
+        ValueExpressionResolver noExpressions = (expression, parameter) -> String.valueOf(parameter);
+        aspect.setMeterTagAnnotationHandler(new MeterTagAnnotationHandler(
+                resolverClass -> {
+                    if (resolverClass != FacilityTagResolver.class) {
+                        throw new IllegalStateException("Neznámý resolver tagu metriky: " + resolverClass);
+                    }
+                    return facilityTagResolver;
+                },
+                resolverClass -> noExpressions));
+        return aspect;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountInspector);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryCountInspector);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Konfigurační třída pro hashování hesel.
+ * Samostatně od SpringSecurity, aby konfigurace zabezpečení mohla encoder převzít jako závislost.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * Bean pro šifrování hesel pomocí BCrypt s nastavitelnou cenou (app.password.bcrypt-strength).
+     * Používá se při registraci uživatelů a při autentizaci. Nové hashe nesou prefix {bcrypt},
+     * starší hashe bez prefixu se ověřují jako BCrypt. Po úspěšném přihlášení se hash s jiným
+     * algoritmem nebo nižší cenou přepočítá (viz AuthentizationService.updatePassword).
+     * Výpočty běží na executoru passwordHashingExecutor.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.password.bcrypt-strength:10}") int strength,
+                                           ThreadPoolExecutor passwordHashingExecutor,
+                                           MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(encoder, passwordHashingExecutor, meterRegistry);
+    }
+
+    /**
+     * Omezený executor pro hashování hesel: pevný počet vláken (výchozí počet procesorů)
+     * a omezená fronta čekajících požadavků. Při plné frontě se další požadavek odmítne.
+     * Obsazenost vláken a fronty se exportuje jako metriky executor.* s tagem name=password-hash.
+     */
+    @Bean
+    public ThreadPoolExecutor passwordHashingExecutor(@Value("${app.password.hashing-threads:0}") int threads,
+                                                   @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password-hash", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sleduje pinning virtuálních vláken (virtuální vlákno blokuje uvnitř synchronized nebo nativního volání
+ * a drží tím nosné vlákno) přes událost JFR jdk.VirtualThreadPinned a převádí ji na metriky
+ * jvm.threads.virtual.pinned (počet a doba). Místo pinningu se loguje na úrovni DEBUG.
+ * Na JVM bez virtuálních vláken (Java &lt; 21) se nespouští.
+ */
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Timer pinnedTime;
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(MeterRegistry registry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Počet případů, kdy virtuální vlákno drželo nosné vlákno déle než práh")
+                .register(registry);
+        this.pinnedTime = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Doba, po kterou virtuální vlákno drželo nosné vlákno")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (Runtime.version().feature() < 21) {
+            log.info("Virtuální vlákna vyžadují Java 21+, sledování pinningu se nespouští (běží Java {}).",
+                    Runtime.version().feature());
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    private void record(RecordedEvent event) {
+        pinned.increment();
+        pinnedTime.record(event.getDuration());
+        if (log.isDebugEnabled() && event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            log.debug("Pinning virtuálního vlákna {} ms: {}", event.getDuration().toMillis(),
+                    frames.isEmpty() ? "?" : frames.get(0).getMethod().getType().getName() + "." + frames.get(0).getMethod().getName());
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Počítá SQL příkazy, které Hibernate připraví během jednoho HTTP požadavku, a zapisuje je
+ * do metriky hibernate.queries.per.request (tag uri = vzor mapování kontroleru).
+ * Jako StatementInspector vidí každý příkaz, jako AsyncHandlerInterceptor ohraničuje požadavek.
+ */
+@Component
+public class QueryCountInspector implements StatementInspector, AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    public QueryCountInspector(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        COUNTER.set(new int[1]);
+        return true;
+    }
+
+    /**
+     * Asynchronní požadavek (např. proud SSE) uvolní vlákno dřív, než skončí - počítadlo se neuloží
+     * a nesmí zůstat navázané na vlákno, které obslouží další požadavek.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        COUNTER.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        if (counter == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("hibernate.queries.per.request")
+                .description("Počet SQL příkazů na jeden HTTP požadavek")
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(registry)
+                .record(counter[0]);
+    }
+}
@@ -1,40 +1,46 @@
 package com.example.config;
 
+import com.example.service.UserIdentityCache;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 /**
  * Konfigurační třída pro nastavení Spring Security.
  * Zajišťuje autentizaci, autorizaci a správu přístupu k různým částem aplikace.
+ * Ve výchozím režimu (app.security.mode=session) drží přihlášení v HttpSession, v režimu jwt
+ * je bezstavová - přihlášení nese podepsaný token v cookie nebo hlavičce Authorization (viz JwtService).
  */
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity  // Aby platily i anotace @PreAuthorize na kontrolerech
 public class SpringSecurity {
 
     private final UserDetailsService userDetailsService;
+    private final UserIdentityCache userIdentityCache;
+    private final JwtService jwtService;  // null v režimu session
 
-    // Konstruktor pro injektování UserDetailsService, který načítá uživatele z databáze
-    public SpringSecurity(UserDetailsService userDetailsService) {
+    // Konstruktor pro injektování UserDetailsService, který načítá uživatele z databáze, a služby tokenů (jen v režimu jwt)
+    public SpringSecurity(UserDetailsService userDetailsService, UserIdentityCache userIdentityCache,
+                          ObjectProvider<JwtService> jwtService) {
         this.userDetailsService = userDetailsService;
-    }
-
-    /**
-     * Bean pro šifrování hesel pomocí BCrypt.
-     * Používá se při registraci uživatelů a při autentizaci.
-     */
-    @Bean
-    public static PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        this.userIdentityCache = userIdentityCache;
+        this.jwtService = jwtService.getIfAvailable();
     }
 
     /**
@@ -46,8 +52,13 @@ public class SpringSecurity {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authorize -> authorize
-                    .requestMatchers("/register/**", "/index", "/", "/admin/**", "/reservations/**").permitAll()
-                    //.requestMatchers("/admin/**").hasRole("ADMIN")  // Přístup na /admin pouze pro ADMIN
+                    // Odběr změn slotů drží spojení dlouho, anonymní klienti by mohli vyčerpat limit spojení
+                    .requestMatchers("/reservations/slots/stream").authenticated()
+                    .requestMatchers("/admin/**").hasRole("ADMIN")  // Přístup na /admin pouze pro ADMIN
+                    .requestMatchers("/register/**", "/index", "/", "/reservations/**").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    // Metriky prozrazují provoz aplikace; Prometheus se přihlašuje účtem s rolí ADMIN (HTTP Basic)
+                    .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                     //.requestMatchers("/reservations/**").hasRole("USER")  // Přístup na /reservations pro USER
                     
                     .anyRequest().authenticated()  // Všechny ostatní žádosti vyžadují přihlášení
@@ -58,22 +69,39 @@ public class SpringSecurity {
                     .successHandler(customSuccessHandler())  // Přesměrování po úspěšném přihlášení
                     .permitAll()  // Přístup k přihlašovací stránce má každý
             )
+            .httpBasic(Customizer.withDefaults())  // Pro strojové klienty (sběr metrik), prohlížeč používá formulář
             .logout(logout -> logout
                     .logoutRequestMatcher(new AntPathRequestMatcher("/logout"))  // Odhlášení přes /logout
                     .logoutSuccessUrl("/index")  // Po úspěšném odhlášení přesměrování na index
                     .permitAll()  // Každý se může odhlásit
             );
 
+        if (jwtService != null) {
+            // Bezstavový režim: žádná HttpSession, kontext přihlášení se skládá z tokenu při každém požadavku
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService, userIdentityCache), UsernamePasswordAuthenticationFilter.class)
+                .logout(logout -> logout.deleteCookies(jwtService.getCookieName()));
+        }
+
         return http.build();
     }
 
     /**
      * Přizpůsobené přesměrování po úspěšném přihlášení.
      * Uživatel s rolí ADMIN bude přesměrován na /admin, ostatní na /reservations.
+     * V režimu jwt se před přesměrováním vydá token do cookie.
      */
     @Bean
     public AuthenticationSuccessHandler customSuccessHandler() {
         return (request, response, authentication) -> {
+            if (jwtService != null) {
+                // Identitu už do cache připravil UserIdentityCache při události AuthenticationSuccessEvent
+                String token = jwtService.issue(userIdentityCache.get(authentication.getName()));
+                jwtService.writeCookie(request, response, token);
+            }
             authentication.getAuthorities().forEach(auth -> {
                 try {
                     if (auth.getAuthority().equals("ROLE_ADMIN")) {
@@ -91,10 +119,12 @@ public class SpringSecurity {
     /**
      * Konfigurace autentizace uživatelů.
      * Používá UserDetailsService pro načtení uživatelů a BCrypt pro porovnávání hesel.
+     * UserDetailsService zároveň implementuje UserDetailsPasswordService, takže se zastaralé hashe
+     * po přihlášení automaticky přepočítají.
      */
     @Autowired
-    public void configureGlobal(AuthenticationManagerBuilder auth) throws Exception {
+    public void configureGlobal(AuthenticationManagerBuilder auth, PasswordEncoder passwordEncoder) throws Exception {
         auth.userDetailsService(userDetailsService)
-            .passwordEncoder(passwordEncoder());
+            .passwordEncoder(passwordEncoder);
     }
 }
@@ -0,0 +1,58 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Profil "virtual-threads": požadavky Tomcatu, @Async i plánované úlohy běží na virtuálních vláknech
+ * (spring.threads.virtual.enabled v application-virtual-threads.properties, účinné od Java 21).
+ * Přístup do databáze omezuje ConnectionGateDataSource na velikost poolu a pinning nosných vláken
+ * se hlásí jako metriky (PinnedThreadMonitor). Hashování hesel zůstává na vlastním poolu platformních
+ * vláken, protože je výpočetně náročné.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    /**
+     * Obalí Hikari DataSource semaforem o velikosti poolu. Čekání na semafor je omezeno
+     * stejným časem jako čekání na spojení v Hikari (connectionTimeout).
+     */
+    @Bean
+    public static BeanPostProcessor connectionGatePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new ConnectionGateDataSource(hikari, hikari.getMaximumPoolSize(),
+                            Duration.ofMillis(hikari.getConnectionTimeout()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionGateMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionGateDataSource gate) {
+                gate.bindTo(registry);
+            }
+        };
+    }
+
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(MeterRegistry registry,
+                                                   @Value("${app.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        return new PinnedThreadMonitor(registry, threshold);
+    }
+}
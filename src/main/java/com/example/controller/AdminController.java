@@ -1,16 +1,47 @@
 package com.example.controller;
 
+import com.example.dto.ReservationCursor;
+import com.example.dto.ReservationFilter;
+import com.example.dto.ReservationView;
+import com.example.dto.UserCursor;
+import com.example.dto.UserSummary;
 import com.example.entity.Reservation;
-import com.example.entity.User;
+import com.example.exception.ReservationConflictException;
+import com.example.exception.ReservationVersionConflictException;
+import com.example.service.EntityCache;
+import com.example.service.FacilityService;
+import com.example.service.UserImportService;
+import com.example.service.UserImportService.ImportResult;
+import com.example.service.ReservationExportService;
+import com.example.service.ReservationExportService.ExportFormat;
 import com.example.service.ReservationService;
+import com.example.service.UserIdentityCache;
 import com.example.service.UserService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Locale;
 
 @Controller
 @RequestMapping("/admin")
@@ -18,30 +49,194 @@ import java.util.List;
 public class AdminController {
 
     private final ReservationService reservationService;
+    private final ReservationExportService reservationExportService;
     private final UserService userService;
+    private final FacilityService facilityService;
+    private final UserIdentityCache userIdentityCache;
+    private final EntityCache entityCache;
+    private final UserImportService userImportService;
 
-    public AdminController(ReservationService reservationService, UserService userService) {
+    public AdminController(ReservationService reservationService, ReservationExportService reservationExportService,
+                           UserService userService, FacilityService facilityService, UserIdentityCache userIdentityCache,
+                           EntityCache entityCache, UserImportService userImportService) {
         this.reservationService = reservationService;
+        this.reservationExportService = reservationExportService;
         this.userService = userService;
+        this.facilityService = facilityService;
+        this.userIdentityCache = userIdentityCache;
+        this.entityCache = entityCache;
+        this.userImportService = userImportService;
     }
 
-    // Zobrazení admin panelu se seznamem rezervací
+    // Zobrazení admin panelu se stránkovaným a filtrovatelným seznamem rezervací
     @GetMapping
-    public String showAdminPage(Model model) {
-        List<Reservation> reservations = reservationService.getAllReservations();
-        List<User> users = userService.findAllUsers().stream()
-                .map(userDto -> {
-                    User user = new User();
-                    user.setEmail(userDto.getEmail());
-                    user.setName(userDto.getFirstName() + " " + userDto.getLastName());
-                    return user;
-                }).toList();
-
-        model.addAttribute("reservations", reservations);
-        model.addAttribute("users", users);
+    public String showAdminPage(@RequestParam(required = false) Integer facilityId,
+                                @RequestParam(required = false) String from,
+                                @RequestParam(required = false) String to,
+                                @RequestParam(required = false) Long userId,
+                                @RequestParam(required = false) String after,
+                                Model model) {
+        ReservationFilter filter;
+        ReservationCursor cursor;
+        try {
+            filter = new ReservationFilter(
+                    facilityId,
+                    from == null || from.isBlank() ? null : LocalDate.parse(from),
+                    to == null || to.isBlank() ? null : LocalDate.parse(to),
+                    userId);
+            cursor = after == null || after.isBlank() ? null : ReservationCursor.decode(after);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        addReservationPage(model, filter, cursor);
+        model.addAttribute("filter", filter);
         return "admin/admin";  // Odkaz na šablonu admin.html
     }
 
+    // Adresář uživatelů se stránkováním (kurzory) a hledáním podle části jména nebo e-mailu
+    @GetMapping("/users")
+    public String showUserDirectory(@RequestParam(required = false) String q,
+                                    @RequestParam(required = false) String after,
+                                    Model model) {
+        Window<UserSummary> page;
+        UserCursor cursor;
+        try {
+            cursor = after == null || after.isBlank() ? null : UserCursor.decode(after);
+            page = userService.getUserDirectoryPage(q, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        model.addAttribute("users", page.getContent());
+        model.addAttribute("q", q);
+
+        if (cursor != null) {
+            model.addAttribute("firstPageUrl", userDirectoryUrl(q, null));
+        }
+        if (page.hasNext()) {
+            model.addAttribute("nextPageUrl", userDirectoryUrl(q, UserCursor.of(page.getContent().get(page.size() - 1))));
+        }
+        return "admin/users";
+    }
+
+    // Odkaz na stránku adresáře; hodnoty se kódují celé (jméno v kurzoru i hledaný text mohou obsahovat cokoliv)
+    private static String userDirectoryUrl(String q, UserCursor after) {
+        UriComponentsBuilder url = ServletUriComponentsBuilder.fromCurrentContextPath().path("/admin/users");
+        if (q != null && !q.isBlank()) {
+            url.queryParam("q", UriUtils.encode(q, StandardCharsets.UTF_8));
+        }
+        if (after != null) {
+            url.queryParam("after", UriUtils.encode(after.encode(), StandardCharsets.UTF_8));
+        }
+        return url.build(true).toUriString();
+    }
+
+    // Přidání jedné stránky rezervací do modelu včetně odkazů na první a další stránku (kurzory)
+    private void addReservationPage(Model model, ReservationFilter filter, ReservationCursor cursor) {
+        Window<ReservationView> page = reservationService.getReservationPage(filter, cursor);
+        model.addAttribute("reservations", page.getContent());
+        model.addAttribute("facilities", facilityService.findAll());
+
+        if (cursor != null) {
+            model.addAttribute("firstPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replacePath("/admin").replaceQueryParam("after").build(true).toUriString());
+        }
+        if (page.hasNext()) {
+            ReservationCursor next = ReservationCursor.of(page.getContent().get(page.size() - 1));
+            model.addAttribute("nextPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replacePath("/admin").replaceQueryParam("after", next.encode()).build(true).toUriString());
+        }
+    }
+
+    // Fulltextové hledání rezervací podle slov v poznámce, výsledky podle relevance po stránkách
+    @GetMapping("/reservations/search")
+    public String searchReservations(@RequestParam String q,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     Model model) {
+        Window<ReservationView> results = reservationService.searchReservations(q, page);
+        model.addAttribute("reservations", results.getContent());
+        model.addAttribute("facilities", facilityService.findAll());
+        model.addAttribute("filter", ReservationFilter.none());
+        model.addAttribute("q", q);
+
+        if (page > 0) {
+            model.addAttribute("firstPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page").build(true).toUriString());
+        }
+        if (results.hasNext()) {
+            model.addAttribute("nextPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", page + 1).build(true).toUriString());
+        }
+        return "admin/admin";
+    }
+
+    // Znovunačtení sportovišť a provozních kalendářů (např. po přidání dne uzavření) a výpis budoucích rezervací,
+    // které na den uzavření připadají
+    @PostMapping("/facilities/reload")
+    public String reloadFacilities(Model model) {
+        facilityService.reload();
+        model.addAttribute("reservations", reservationService.getReservationsOnClosedDays());
+        model.addAttribute("facilities", facilityService.findAll());
+        model.addAttribute("filter", ReservationFilter.none());
+        model.addAttribute("closedDayReservations", true);
+        return "admin/admin";
+    }
+
+    // Export všech rezervací jako CSV nebo NDJSON, zapisuje se průběžně přímo do odpovědi
+    @GetMapping("/reservations/export")
+    public void exportReservations(@RequestParam(defaultValue = "csv") String format,
+                                   HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Nepodporovaný formát exportu: " + format);
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"reservations." + exportFormat.getExtension() + "\"");
+        reservationExportService.export(exportFormat, response.getOutputStream());
+    }
+
+    // Hromadný import uživatelů z CSV (first_name,last_name,email,password), výsledek se zobrazí v admin panelu
+    @PostMapping("/users/import")
+    public String importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        ImportResult result;
+        try (InputStream in = file.getInputStream()) {
+            result = userImportService.importCsv(in);
+        } catch (IllegalArgumentException | AuthenticationServiceException e) {
+            // Plnou frontu hashování import přečká; sem dojde jen neplatný soubor nebo přerušené hashování
+            return "redirect:/admin?importError";
+        }
+        return "redirect:/admin?imported=" + result.imported() + "&duplicates=" + result.duplicates()
+                + "&invalid=" + result.invalid();
+    }
+
+    // Statistiky cache identit přihlášených uživatelů (JSON)
+    @GetMapping("/stats/user-cache")
+    @ResponseBody
+    public Map<String, Object> userCacheStats() {
+        CacheStats stats = userIdentityCache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", userIdentityCache.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadCount", stats.loadCount());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    // Statistiky druhoúrovňové cache Hibernate a cache dotazů (JSON)
+    @GetMapping("/stats/entity-cache")
+    @ResponseBody
+    public Map<String, Object> entityCacheStats() {
+        return entityCache.statistics();
+    }
+
     // Mazání rezervace a přesměrování zpět na admin s úspěšnou zprávou
     @PostMapping("/reservations/delete/{id}")
     public String deleteReservation(@PathVariable Long id) {
@@ -53,30 +248,55 @@ public class AdminController {
 public String editReservation(@PathVariable Long id, Model model) {
     Reservation reservation = reservationService.findReservationById(id);
     model.addAttribute("editReservation", reservation);
-    model.addAttribute("reservations", reservationService.getAllReservations());
+    model.addAttribute("filter", ReservationFilter.none());
+    addReservationPage(model, ReservationFilter.none(), null);
     return "admin/admin";
 }
 
 @PostMapping("/reservations/update/{id}")
 public String updateReservation(@PathVariable Long id,
+                                @RequestParam Integer facilityId,
+                                @RequestParam String date,
                                 @RequestParam String startTime,
                                 @RequestParam String endTime,
-                                @ModelAttribute Reservation updatedReservation,
-                                Model model) {
+                                @RequestParam(required = false) String note,
+                                @RequestParam Long version,
+                                Model model,
+                                HttpServletResponse response) {
 
-    LocalTime start = LocalTime.parse(startTime);
-    LocalTime end = LocalTime.parse(endTime);
+    LocalDate reservationDate;
+    LocalTime start;
+    LocalTime end;
+    try {
+        reservationDate = LocalDate.parse(date);
+        start = LocalTime.parse(startTime);
+        end = LocalTime.parse(endTime);
+    } catch (DateTimeParseException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
 
     // Validace - začátek musí být před koncem
     if (start.isAfter(end) || start.equals(end)) {
         model.addAttribute("error", "Čas začátku musí být dříve než čas ukončení.");
-        model.addAttribute("editReservation", updatedReservation);
-        model.addAttribute("reservations", reservationService.getAllReservations());
+        model.addAttribute("editReservation", reservationService.findReservationById(id));
+        model.addAttribute("filter", ReservationFilter.none());
+        addReservationPage(model, ReservationFilter.none(), null);
         return "admin/admin";
     }
 
     // Aktualizace rezervace
-    reservationService.updateReservation(id, updatedReservation);
+    try {
+        reservationService.updateReservation(id, version, facilityId, reservationDate.atTime(start), reservationDate.atTime(end), note);
+    } catch (ReservationConflictException | IllegalArgumentException e) {
+        if (e instanceof ReservationVersionConflictException) {
+            response.setStatus(HttpServletResponse.SC_CONFLICT);
+        }
+        model.addAttribute("error", e.getMessage());
+        model.addAttribute("editReservation", reservationService.findReservationById(id));
+        model.addAttribute("filter", ReservationFilter.none());
+        addReservationPage(model, ReservationFilter.none(), null);
+        return "admin/admin";
+    }
 
     return "redirect:/admin?updated";
 }
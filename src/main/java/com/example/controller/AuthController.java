@@ -1,11 +1,12 @@
 package com.example.controller;
 
 import com.example.dto.UserDto;
-import com.example.entity.User;
+import com.example.exception.EmailAlreadyUsedException;
 import com.example.service.UserService;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -64,30 +65,30 @@ public class AuthController {
 
     /**
      * Zpracování odeslaného registračního formuláře.
-     * Validuje vstupy uživatele a kontroluje, zda již existuje účet s daným e-mailem.
+     * Validuje vstupy uživatele a uloží ho jedním INSERT; obsazený e-mail se pozná až podle
+     * unikátního omezení v databázi (i při souběžné registraci) a zobrazí se jako chyba pole e-mail.
+     * Při přetížení hashování hesel se formulář zobrazí znovu s výzvou zkusit to za chvíli.
      * @param userDto Data z registračního formuláře.
      * @param result Výsledky validace formuláře.
      * @param model Model pro předání dat zpět do šablony v případě chyby.
      * @return V případě chyby vrací zpět na registrační stránku. Jinak přesměrování na "/register?success".
      */
-    @SuppressWarnings("null")
     @PostMapping("/register/save")
     public String registration(@Valid @ModelAttribute("user") UserDto userDto,
                                BindingResult result,
                                Model model) {
-        User existingUser = userService.findUserByEmail(userDto.getEmail());
-
-        if (existingUser != null && existingUser.getEmail() != null && !existingUser.getEmail().isEmpty()) {
-            result.rejectValue("email", null,
-                    "Účet s tímto e-mailem již existuje");
-        }
-        if (result.hasErrors()) {
-            model.addAttribute("user", userDto);
-            return "/register";
+        if (!result.hasErrors()) {
+            try {
+                userService.saveUser(userDto);  // Uložení nového uživatele do databáze
+                return "redirect:/register?success";
+            } catch (EmailAlreadyUsedException e) {
+                result.rejectValue("email", null, e.getMessage());
+            } catch (AuthenticationServiceException e) {
+                // Plná fronta hashování hesel (BoundedPasswordEncoder) - formulář zůstane vyplněný, stačí ho odeslat znovu
+                result.reject(null, e.getMessage());
+            }
         }
-
-        // Uložení nového uživatele do databáze
-        userService.saveUser(userDto);
-        return "redirect:/register?success";
+        model.addAttribute("user", userDto);
+        return "/register";
     }
 }
@@ -1,16 +1,35 @@
 package com.example.controller;
 
+import com.example.dto.AvailabilityGrid;
 import com.example.entity.Reservation;
-import com.example.entity.User;
+import com.example.dto.UserIdentity;
+import com.example.exception.ReservationConflictException;
+import com.example.exception.ReservationVersionConflictException;
+import com.example.exception.SubscriptionLimitException;
+import com.example.service.FacilityService;
 import com.example.service.ReservationService;
+import com.example.service.ReservationService.Recurrence;
+import com.example.service.SlotUpdateBroadcaster;
+import com.example.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Kontroler pro správu rezervací uživatele.
@@ -21,56 +40,64 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
-    private final com.example.repository.UserRepository userRepository;
+    private final FacilityService facilityService;
+    private final UserService userService;
+    private final SlotUpdateBroadcaster slotUpdateBroadcaster;
 
     /**
-     * Konstruktor pro injektování služby rezervací a uživatelského repozitáře.
+     * Konstruktor pro injektování služby rezervací, služby sportovišť, služby uživatelů
+     * a rozesílání změn volných slotů.
      */
-    public ReservationController(ReservationService reservationService, com.example.repository.UserRepository userRepository) {
+    public ReservationController(ReservationService reservationService, FacilityService facilityService,
+                                 UserService userService, SlotUpdateBroadcaster slotUpdateBroadcaster) {
         this.reservationService = reservationService;
-        this.userRepository = userRepository;
+        this.facilityService = facilityService;
+        this.userService = userService;
+        this.slotUpdateBroadcaster = slotUpdateBroadcaster;
     }
 
     /**
      * Zobrazení rezervací pro aktuálně přihlášeného uživatele.
      * @param model Model pro předání dat do šablony.
      * @param userDetails Detaily o přihlášeném uživateli.
-     * @return Vrací šablonu "reservations.html" se seznamem rezervací a dostupnými časovými sloty.
+     * @return Vrací šablonu "reservations.html" se seznamem rezervací a sportovišť (volné sloty se načítají zvlášť).
      */
     @GetMapping
     public String showReservations(Model model, @AuthenticationPrincipal org.springframework.security.core.userdetails.User userDetails) {
         if (userDetails != null) {
-            User user = userRepository.findByEmail(userDetails.getUsername());
+            UserIdentity user = userService.findIdentityByEmail(userDetails.getUsername());
 
             if (user != null) {
                 // Přidání rezervací do modelu
-                model.addAttribute("reservations", reservationService.getUserReservations(user));
+                model.addAttribute("reservations", reservationService.getUserReservations(user.id()));
             }
         }
 
-        // Předání dostupných časových slotů pro zobrazení v šabloně
-        List<String> timeSlots = reservationService.generateHalfHourSlots();
-        model.addAttribute("timeSlots", timeSlots);
+        model.addAttribute("facilities", facilityService.findAll());
 
         return "reservations";
     }
 
     /**
      * Uložení nové rezervace.
-     * @param title Název sportoviště.
+     * @param facilityId ID sportoviště.
      * @param date Datum rezervace.
      * @param startTime Čas začátku rezervace.
      * @param endTime Čas ukončení rezervace.
      * @param note Poznámka (volitelná).
+     * @param repeat Opakování (WEEKLY, BIWEEKLY), prázdné pro jednorázovou rezervaci.
+     * @param until Poslední den opakování (povinný při opakování).
      * @param userDetails Detaily o přihlášeném uživateli.
      * @return Přesměrování zpět na seznam rezervací.
      */
     @PostMapping("/save")
-    public String saveReservation(@RequestParam String title,
+    public String saveReservation(@RequestParam Integer facilityId,
                                   @RequestParam String date,
                                   @RequestParam String startTime,
                                   @RequestParam String endTime,
                                   @RequestParam(required = false) String note,
+                                  @RequestParam(required = false) String repeat,
+                                  @RequestParam(required = false) String until,
                                   @AuthenticationPrincipal org.springframework.security.core.userdetails.User userDetails,
                                   Model model) {
     
@@ -78,7 +105,7 @@ public class ReservationController {
             return "redirect:/login";
         }
     
-        User user = userRepository.findByEmail(userDetails.getUsername());
+        UserIdentity user = userService.findIdentityByEmail(userDetails.getUsername());
         if (user == null) {
             return "redirect:/login";
         }
@@ -91,40 +118,133 @@ public class ReservationController {
         // Validace - začátek musí být před koncem
         if (start.isAfter(end) || start.equals(end)) {
             model.addAttribute("error", "Čas začátku musí být dříve než čas ukončení.");
-            model.addAttribute("timeSlots", reservationService.generateHalfHourSlots());
-            model.addAttribute("reservations", reservationService.getUserReservations(user));
+            model.addAttribute("facilities", facilityService.findAll());
+            model.addAttribute("reservations", reservationService.getUserReservations(user.id()));
             return "reservations";
         }
     
-        // Uložení rezervace
-        reservationService.saveReservation(
-                title,
-                reservationDate.atTime(start),
-                reservationDate.atTime(end),
-                note,
-                user
-        );
+        // Uložení rezervace (jednorázové nebo opakované)
+        try {
+            if (repeat == null || repeat.isBlank()) {
+                reservationService.saveReservation(
+                        facilityId,
+                        reservationDate.atTime(start),
+                        reservationDate.atTime(end),
+                        note,
+                        user.id()
+                );
+            } else {
+                reservationService.saveReservationSeries(
+                        facilityId,
+                        reservationDate,
+                        start,
+                        end,
+                        Recurrence.fromParameter(repeat),
+                        until == null || until.isBlank() ? reservationDate : parseUntil(until),
+                        note,
+                        user.id()
+                );
+            }
+        } catch (ReservationConflictException | IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage());
+            model.addAttribute("facilities", facilityService.findAll());
+            model.addAttribute("reservations", reservationService.getUserReservations(user.id()));
+            return "reservations";
+        }
     
         return "redirect:/reservations";
     }
-    
+
+    // Poslední den opakování z formuláře; chybný formát se hlásí stejně jako ostatní chyby formuláře
+    private static LocalDate parseUntil(String until) {
+        try {
+            return LocalDate.parse(until);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Neplatné datum konce opakování.", e);
+        }
+    }
 
     /**
      * Načtení dostupných časových slotů pro vybraný den a sportoviště.
-     * @param title Název sportoviště.
+     * @param facilityId ID sportoviště.
      * @param date Datum rezervace.
      * @param model Model pro předání dat do šablony.
      * @return Fragment šablony "availableSlots" s volnými sloty.
      */
     @GetMapping("/availableSlots")
-    public String getAvailableSlots(@RequestParam String title, @RequestParam String date, Model model) {
+    public String getAvailableSlots(@RequestParam Integer facilityId, @RequestParam String date, Model model) {
         LocalDate reservationDate = LocalDate.parse(date);
-        List<String> availableSlots = reservationService.getAvailableSlots(title, reservationDate);
+        List<String> availableSlots = reservationService.getAvailableSlots(facilityId, reservationDate);
 
         model.addAttribute("availableSlots", availableSlots);
         return "reservations :: availableSlots";
     }
 
+    /**
+     * JSON varianta načtení dostupných časových slotů (volaná z AJAXu s hlavičkou Accept: application/json).
+     * Odpověď nese silný ETag odvozený z obsazenosti daného dne a sportoviště (stejný na všech instancích).
+     * Pokud klient pošle If-None-Match se stejnou hodnotou, vrací se 304 bez sestavení odpovědi.
+     * @param facilityId ID sportoviště.
+     * @param date Datum rezervace.
+     * @param webRequest Požadavek pro vyhodnocení podmíněného GET.
+     * @return JSON objekt s polem availableSlots, případně 304 Not Modified.
+     */
+    @GetMapping(value = "/availableSlots", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<Map<String, List<String>>> getAvailableSlotsJson(@RequestParam Integer facilityId,
+                                                                           @RequestParam String date,
+                                                                           WebRequest webRequest) {
+        LocalDate reservationDate = LocalDate.parse(date);
+        String etag = "\"" + reservationService.getAvailabilityETag(facilityId, reservationDate) + "\"";
+
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)  // ETag už nastavil checkNotModified
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())  // Prohlížeč se vždy zeptá, ale s If-None-Match
+                .body(Map.of("availableSlots", reservationService.getAvailableSlots(facilityId, reservationDate)));
+    }
+
+    /**
+     * Odběr změn volných slotů vybraného sportoviště a dne (Server-Sent Events, událost "slots").
+     * První zpráva nese aktuální volné sloty, další přijdou po každém uložení, úpravě nebo smazání
+     * rezervace v tomto dni. Stránka rezervací tak nemusí dostupnost opakovaně dotazovat.
+     * @param facilityId ID sportoviště.
+     * @param date Datum (yyyy-MM-dd).
+     * @return Otevřený proud událostí.
+     */
+    @GetMapping(value = "/slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSlots(@RequestParam Integer facilityId, @RequestParam String date) {
+        try {
+            return slotUpdateBroadcaster.subscribe(facilityId, LocalDate.parse(date));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (SubscriptionLimitException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Načtení volných slotů pro více sportovišť a rozsah dní jedním požadavkem (např. pro týdenní přehled).
+     * @param facilityIds ID sportovišť.
+     * @param from První den rozsahu (yyyy-MM-dd).
+     * @param to Poslední den rozsahu včetně (yyyy-MM-dd).
+     * @return JSON mřížka volných slotů.
+     */
+    @GetMapping("/availability")
+    @ResponseBody
+    public AvailabilityGrid getAvailability(@RequestParam List<Integer> facilityIds, @RequestParam String from, @RequestParam String to) {
+        try {
+            return reservationService.getAvailabilityGrid(new LinkedHashSet<>(facilityIds), LocalDate.parse(from), LocalDate.parse(to));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     /**
      * Smazání rezervace podle ID.
      * Používá POST metodu kvůli kompatibilitě s prohlížeči, které nemusí podporovat DELETE.
@@ -147,34 +267,64 @@ public class ReservationController {
     public String editReservation(@PathVariable Long id, Model model) {
         Reservation reservation = reservationService.findReservationById(id);
         model.addAttribute("reservation", reservation);
+        model.addAttribute("facilities", facilityService.findAll());
         return "admin/editReservation";  // Správná cesta k šabloně
     }
 
     /**
      * Uložení aktualizované rezervace.
      * @param id ID rezervace.
-     * @param updatedReservation Aktualizovaná rezervace.
-     * @return Přesměrování zpět na seznam rezervací s potvrzením úspěchu.
+     * @param facilityId ID sportoviště.
+     * @param date Datum rezervace.
+     * @param startTime Čas začátku rezervace.
+     * @param endTime Čas ukončení rezervace.
+     * @param note Poznámka (volitelná).
+     * @param version Verze rezervace, ze které formulář vychází (optimistické zamykání).
+     * @return Přesměrování zpět na seznam rezervací s potvrzením úspěchu; při souběžné úpravě
+     *         znovu formulář s aktuálními údaji a stavem 409.
      */
     @PostMapping("/update/{id}")
     public String updateReservation(@PathVariable Long id,
+                                    @RequestParam Integer facilityId,
+                                    @RequestParam String date,
                                     @RequestParam String startTime,
                                     @RequestParam String endTime,
-                                    @ModelAttribute Reservation updatedReservation,
-                                    Model model) {
+                                    @RequestParam(required = false) String note,
+                                    @RequestParam Long version,
+                                    Model model,
+                                    HttpServletResponse response) {
     
-        LocalTime start = LocalTime.parse(startTime);
-        LocalTime end = LocalTime.parse(endTime);
+        LocalDate reservationDate;
+        LocalTime start;
+        LocalTime end;
+        try {
+            reservationDate = LocalDate.parse(date);
+            start = LocalTime.parse(startTime);
+            end = LocalTime.parse(endTime);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     
         // Validace - začátek musí být před koncem
         if (start.isAfter(end) || start.equals(end)) {
             model.addAttribute("error", "Čas začátku musí být dříve než čas ukončení.");
             model.addAttribute("reservation", reservationService.findReservationById(id));
+            model.addAttribute("facilities", facilityService.findAll());
             return "admin/editReservation";
         }
     
         // Aktualizace rezervace
-        reservationService.updateReservation(id, updatedReservation);
+        try {
+            reservationService.updateReservation(id, version, facilityId, reservationDate.atTime(start), reservationDate.atTime(end), note);
+        } catch (ReservationConflictException | IllegalArgumentException e) {
+            if (e instanceof ReservationVersionConflictException) {
+                response.setStatus(HttpServletResponse.SC_CONFLICT);
+            }
+            model.addAttribute("error", e.getMessage());
+            model.addAttribute("reservation", reservationService.findReservationById(id));
+            model.addAttribute("facilities", facilityService.findAll());
+            return "admin/editReservation";
+        }
     
         return "redirect:/reservations?success";
     }
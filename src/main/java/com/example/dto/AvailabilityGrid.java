@@ -0,0 +1,31 @@
+package com.example.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mřížka volných slotů pro více sportovišť a dnů.
+ * @param facilities Dostupnost jednotlivých sportovišť v pořadí, ve kterém byla vyžádána.
+ */
+public record AvailabilityGrid(List<FacilityAvailability> facilities) {
+
+    /**
+     * Dostupnost jednoho sportoviště.
+     * @param facilityId ID sportoviště.
+     * @param name Název sportoviště.
+     * @param days Dostupnost podle dne.
+     */
+    public record FacilityAvailability(Integer facilityId, String name, Map<LocalDate, DayAvailability> days) {
+    }
+
+    /**
+     * Dostupnost sportoviště v jednom dni.
+     * @param opensAt Začátek prvního slotu ve formátu HH:mm.
+     * @param slotMinutes Délka slotu v minutách.
+     * @param free Řetězec, kde '1' na pozici i znamená volný slot začínající v opensAt + i * slotMinutes
+     *             a '0' obsazený.
+     */
+    public record DayAvailability(String opensAt, int slotMinutes, String free) {
+    }
+}
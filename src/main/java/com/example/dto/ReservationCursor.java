@@ -0,0 +1,43 @@
+package com.example.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Kurzor pro stránkování rezervací metodou keyset (seek): pozice poslední zobrazené rezervace
+ * podle řazení (reservationDate, startTime, id). V URL se předává jako jeden řetězec.
+ */
+public record ReservationCursor(LocalDate reservationDate, LocalDateTime startTime, Long id) {
+
+    private static final String SEPARATOR = "_";
+
+    /**
+     * Kurzor ukazující na danou rezervaci.
+     */
+    public static ReservationCursor of(ReservationView reservation) {
+        return new ReservationCursor(reservation.reservationDate(), reservation.startTime(), reservation.id());
+    }
+
+    /**
+     * Převede kurzor na řetězec pro URL, např. "2025-03-01_2025-03-01T10:00_42".
+     */
+    public String encode() {
+        return reservationDate + SEPARATOR + startTime + SEPARATOR + id;
+    }
+
+    /**
+     * Načte kurzor z řetězce vytvořeného metodou encode.
+     * @throws IllegalArgumentException Pokud řetězec není platný kurzor.
+     */
+    public static ReservationCursor decode(String value) {
+        String[] parts = value.split(SEPARATOR);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Neplatný kurzor: " + value);
+        }
+        try {
+            return new ReservationCursor(LocalDate.parse(parts[0]), LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Neplatný kurzor: " + value, e);
+        }
+    }
+}
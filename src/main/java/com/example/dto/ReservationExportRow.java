@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Řádek exportu rezervací (CSV, NDJSON) - jen exportované sloupce.
+ * Čte se konstruktorovým výrazem, takže se nenačítají entity rezervací, uživatelů ani jejich rolí
+ * a persistence context zůstává během exportu prázdný.
+ * @param id ID rezervace.
+ * @param facilityName Název sportoviště.
+ * @param reservationDate Datum rezervace.
+ * @param startTime Čas začátku rezervace.
+ * @param endTime Čas ukončení rezervace.
+ * @param note Poznámka.
+ * @param userEmail E-mail uživatele, který rezervaci vytvořil.
+ */
+public record ReservationExportRow(Long id, String facilityName, LocalDate reservationDate,
+                                   LocalDateTime startTime, LocalDateTime endTime, String note, String userEmail) {
+}
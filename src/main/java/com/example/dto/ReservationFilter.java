@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filtr pro výpis rezervací v administraci. Nevyplněné položky (null) se neuplatňují.
+ * @param facilityId ID sportoviště.
+ * @param from První den rozsahu (včetně).
+ * @param to Poslední den rozsahu (včetně).
+ * @param userId ID uživatele, který rezervaci vytvořil.
+ */
+public record ReservationFilter(Integer facilityId, LocalDate from, LocalDate to, Long userId) {
+
+    public static ReservationFilter none() {
+        return new ReservationFilter(null, null, null, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Řádek výpisu rezervací - jen sloupce, které šablony zobrazují.
+ * Načítá se jedním dotazem se spojením na sportoviště a uživatele, bez načítání entit
+ * (a tedy bez dalších dotazů na uživatele a jeho role).
+ * @param id ID rezervace.
+ * @param facilityId ID sportoviště.
+ * @param facilityName Název sportoviště.
+ * @param reservationDate Datum rezervace.
+ * @param startTime Čas začátku rezervace.
+ * @param endTime Čas ukončení rezervace.
+ * @param note Poznámka.
+ * @param userId ID uživatele, který rezervaci vytvořil.
+ * @param userName Jméno uživatele, který rezervaci vytvořil.
+ */
+public record ReservationView(Long id, Integer facilityId, String facilityName, LocalDate reservationDate,
+                              LocalDateTime startTime, LocalDateTime endTime, String note,
+                              Long userId, String userName) {
+}
@@ -0,0 +1,18 @@
+package com.example.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Změna volných slotů jednoho sportoviště a dne, posílaná otevřeným stránkám rezervací (Server-Sent Events).
+ * Nese i úplný seznam volných slotů, takže klient, který předchozí změnu nedostal, má vždy aktuální stav.
+ * @param facilityId ID sportoviště.
+ * @param date Datum.
+ * @param version Verze obsazenosti (stejná jako v ETagu volných slotů).
+ * @param free Začátky všech volných slotů (HH:mm).
+ * @param taken Sloty obsazené od minulé zprávy.
+ * @param released Sloty uvolněné od minulé zprávy.
+ */
+public record SlotDelta(Integer facilityId, LocalDate date, String version,
+                        List<String> free, List<String> taken, List<String> released) {
+}
@@ -0,0 +1,41 @@
+package com.example.dto;
+
+/**
+ * Kurzor pro stránkování adresáře uživatelů metodou keyset (seek): pozice posledního zobrazeného
+ * uživatele podle řazení (name, id). V URL se předává jako jeden řetězec.
+ */
+public record UserCursor(String name, Long id) {
+
+    private static final String SEPARATOR = "_";
+
+    /**
+     * Kurzor ukazující na daného uživatele.
+     */
+    public static UserCursor of(UserSummary user) {
+        return new UserCursor(user.name(), user.id());
+    }
+
+    /**
+     * Převede kurzor na řetězec pro URL, např. "42_Jan Novák". ID je první, protože jméno
+     * může oddělovač obsahovat.
+     */
+    public String encode() {
+        return id + SEPARATOR + name;
+    }
+
+    /**
+     * Načte kurzor z řetězce vytvořeného metodou encode.
+     * @throws IllegalArgumentException Pokud řetězec není platný kurzor.
+     */
+    public static UserCursor decode(String value) {
+        String[] parts = value.split(SEPARATOR, 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Neplatný kurzor: " + value);
+        }
+        try {
+            return new UserCursor(parts[1], Long.valueOf(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Neplatný kurzor: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.dto;
+
+import com.example.entity.Role;
+import com.example.entity.User;
+
+import java.util.List;
+
+/**
+ * Odlehčená identita přihlášeného uživatele pro obsluhu požadavků - bez hesla a bez vazby na persistence context.
+ * @param id ID uživatele.
+ * @param name Jméno uživatele.
+ * @param email E-mail uživatele (přihlašovací jméno).
+ * @param roles Názvy rolí, např. "ROLE_USER".
+ */
+public record UserIdentity(Long id, String name, String email, List<String> roles) {
+
+    public static UserIdentity of(User user) {
+        return new UserIdentity(user.getId(), user.getName(), user.getEmail(),
+                user.getRoles().stream().map(Role::getName).toList());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.dto;
+
+/**
+ * Řádek adresáře uživatelů v administraci - jen zobrazované sloupce, bez hesla a rolí.
+ * Načítá se přímo dotazem (konstruktorový výraz), bez načítání entit User.
+ * @param id ID uživatele.
+ * @param name Jméno uživatele.
+ * @param email E-mail uživatele.
+ */
+public record UserSummary(Long id, String name, String email) {
+}
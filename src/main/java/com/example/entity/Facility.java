@@ -0,0 +1,44 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import com.example.config.EntityCacheConfig;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalTime;
+
+/**
+ * Entita představující sportoviště (např. tělocvična, bazén).
+ * Kromě názvu nese provozní údaje, ze kterých se počítají časové sloty pro rezervace.
+ * Tato třída je mapována na tabulku "facilities" v databázi.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "facilities")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.FACILITIES)
+public class Facility {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;  // Krátký celočíselný klíč, používá se v indexech a cizích klíčích rezervací
+
+    @Column(nullable = false, unique = true)
+    private String name;  // Zobrazovaný název sportoviště
+
+    @Column(nullable = false)
+    private LocalTime openingTime;  // Začátek prvního slotu dne
+
+    @Column(nullable = false)
+    private LocalTime closingTime;  // Konec posledního slotu dne
+
+    @Column(nullable = false)
+    private Integer slotMinutes;  // Délka jednoho rezervačního slotu v minutách
+}
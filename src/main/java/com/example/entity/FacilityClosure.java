@@ -0,0 +1,35 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+
+/**
+ * Den, kdy je sportoviště zavřené (svátek, údržba).
+ * Uzavření bez sportoviště platí pro všechna sportoviště.
+ * Tato třída je mapována na tabulku "facility_closures" v databázi.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "facility_closures")
+public class FacilityClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "facility_id")
+    private Facility facility;  // Prázdné = všechna sportoviště
+
+    @Column(nullable = false)
+    private LocalDate closureDate;
+
+    private String reason;  // Důvod uzavření (např. název svátku)
+}
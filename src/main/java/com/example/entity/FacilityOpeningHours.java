@@ -0,0 +1,50 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Provozní doba sportoviště v určitý den v týdnu.
+ * Přepisuje výchozí provozní dobu a délku slotu sportoviště (viz Facility), případně označuje den jako zavřený.
+ * Tato třída je mapována na tabulku "facility_opening_hours" v databázi.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "facility_opening_hours")
+public class FacilityOpeningHours {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "facility_id")
+    private Facility facility;
+
+    @Column(nullable = false)
+    private Integer dayOfWeek;  // ISO 8601: 1 = pondělí, 7 = neděle
+
+    @Column(nullable = false)
+    private boolean closed;  // Sportoviště je v tento den v týdnu zavřené
+
+    private LocalTime openingTime;  // Začátek prvního slotu dne (u zavřeného dne prázdné)
+
+    private LocalTime closingTime;  // Konec posledního slotu dne (u zavřeného dne prázdné)
+
+    private Integer slotMinutes;  // Délka slotu, prázdná = výchozí délka sportoviště
+
+    /**
+     * Den v týdnu jako DayOfWeek.
+     */
+    public DayOfWeek getDay() {
+        return DayOfWeek.of(dayOfWeek);
+    }
+}
@@ -21,12 +21,18 @@ import java.time.LocalDateTime;
 @Table(name = "reservations")
 public class Reservation {
 
+    /**
+     * Primární klíč generovaný ze sekvence po blocích 50 hodnot (optimizer pooled).
+     * Na rozdíl od IDENTITY zná Hibernate ID ještě před INSERTem, takže může vkládat rezervace v dávkách.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;  // Primární klíč, automaticky generovaný (auto-increment)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
+    private Long id;
 
-    @Column(nullable = false)
-    private String title;  // Název rezervovaného sportoviště (např. tělocvična, bazén)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "facility_id", nullable = false)
+    private Facility facility;  // Rezervované sportoviště (např. tělocvična, bazén)
 
     @Column(nullable = false)
     private LocalDateTime startTime;  // Čas začátku rezervace
@@ -40,10 +46,18 @@ public class Reservation {
     @Column
     private String note;  // Volitelná poznámka k rezervaci
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;  // Vztah k uživateli, který rezervaci vytvořil
 
+    /**
+     * Verze pro optimistické zamykání. Úpravy z formulářů se zapisují podmíněně podle verze,
+     * ze které formulář vycházel (viz ReservationRepository.updateIfVersion).
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Metoda pro automatickou aktualizaci reservationDate při nastavení startTime.
      * Tato metoda je volána před uložením (persist) nebo aktualizací (update) entity.
@@ -1,10 +1,13 @@
 package com.example.entity;
 
 import jakarta.persistence.*;
+import com.example.config.EntityCacheConfig;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -13,6 +16,7 @@ import java.util.List;
  * Každý uživatel může mít jednu nebo více rolí.
  * Tato třída využívá Lombok pro automatické generování getterů, setterů
  * a konstruktorů.
+ * Role jsou téměř neměnné, proto se drží v druhoúrovňové cache (viz EntityCacheConfig).
  */
 @Setter
 @Getter
@@ -20,6 +24,8 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "roles")  // Nastavuje název tabulky v databázi na "roles"
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.ROLES)
 public class Role {
 
     @Id
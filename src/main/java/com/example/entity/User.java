@@ -1,10 +1,13 @@
 package com.example.entity;
 
 import jakarta.persistence.*;
+import com.example.config.EntityCacheConfig;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +16,7 @@ import java.util.List;
  * Entita User reprezentuje uživatele v systému.
  * Uživatel má základní informace jako jméno, e-mail, heslo a seznam rolí.
  * Používá Lombok pro automatické generování getterů, setterů a konstruktorů.
+ * Uživatel i jeho role se drží v druhoúrovňové cache, přihlášení je tak obvykle bez dotazu do databáze.
  */
 @Getter
 @Setter
@@ -20,6 +24,8 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "users")  // Určuje název tabulky v databázi
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USERS)
 public class User {
 
     @Id
@@ -41,6 +47,7 @@ public class User {
      * CascadeType.ALL = všechny operace (persist, merge, remove) se propagují na roli.
      */
     @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USER_ROLES)
     @JoinTable(
             name = "users_roles",  // Spojovací tabulka
             joinColumns = {@JoinColumn(name = "USER_ID", referencedColumnName = "ID")},  // FK na uživatele
@@ -0,0 +1,11 @@
+package com.example.exception;
+
+/**
+ * Výjimka vyhozená při registraci uživatele s e-mailem, pod kterým už účet existuje.
+ */
+public class EmailAlreadyUsedException extends RuntimeException {
+
+    public EmailAlreadyUsedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.exception;
+
+/**
+ * Výjimka vyhozená při pokusu o rezervaci termínu, který se překrývá s existující rezervací
+ * na stejném sportovišti.
+ */
+public class ReservationConflictException extends RuntimeException {
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+
+    public ReservationConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
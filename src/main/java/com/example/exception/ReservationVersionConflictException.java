@@ -0,0 +1,12 @@
+package com.example.exception;
+
+/**
+ * Výjimka vyhozená při úpravě rezervace, kterou mezitím změnil někdo jiný
+ * (verze rezervace v databázi se liší od verze, ze které formulář vycházel).
+ */
+public class ReservationVersionConflictException extends ReservationConflictException {
+
+    public ReservationVersionConflictException(String message) {
+        super(message);
+    }
+}
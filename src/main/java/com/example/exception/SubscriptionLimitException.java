@@ -0,0 +1,12 @@
+package com.example.exception;
+
+/**
+ * Výjimka vyhozená při pokusu o odběr změn volných slotů, když má server otevřený
+ * nejvyšší povolený počet spojení (app.sse.max-connections).
+ */
+public class SubscriptionLimitException extends RuntimeException {
+
+    public SubscriptionLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import com.example.entity.FacilityClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * JPA repozitář pro dny, kdy jsou sportoviště zavřená.
+ */
+public interface FacilityClosureRepository extends JpaRepository<FacilityClosure, Integer> {
+}
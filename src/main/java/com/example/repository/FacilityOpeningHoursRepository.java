@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import com.example.entity.FacilityOpeningHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * JPA repozitář pro provozní dobu sportovišť podle dne v týdnu.
+ */
+public interface FacilityOpeningHoursRepository extends JpaRepository<FacilityOpeningHours, Integer> {
+}
@@ -0,0 +1,12 @@
+package com.example.repository;
+
+import com.example.entity.Facility;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * JPA repozitář pro entitu Facility.
+ * Poskytuje metody pro práci se sportovišti v databázi.
+ * Dědí z JpaRepository, což automaticky přidává základní CRUD operace.
+ */
+public interface FacilityRepository extends JpaRepository<Facility, Integer> {
+}
@@ -0,0 +1,27 @@
+package com.example.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Vlastní část repozitáře rezervací pro správu měsíčních partitions tabulky reservations (migrace V11).
+ * Implementace je v ReservationPartitionRepositoryImpl, Spring Data ji připojí k ReservationRepository.
+ */
+public interface ReservationPartitionRepository {
+
+    /**
+     * Založí partition pro měsíc obsahující zadané datum a přesune do ní rezervace tohoto měsíce
+     * z reservations_default. Existující ani archivovaná partition se nemění.
+     * @param month Libovolný den měsíce.
+     * @return true, pokud partition vznikla.
+     */
+    boolean createPartition(LocalDate month);
+
+    /**
+     * Odpojí partitions měsíců, které celé leží před zadaným datem, a přesune je do schématu archive.
+     * Jejich rezervace pak aplikace nevidí (výpisy, hledání, export ani obsazenost slotů).
+     * @param before První den, který v tabulce reservations zůstává.
+     * @return Názvy archivovaných tabulek.
+     */
+    List<String> archivePartitionsBefore(LocalDate before);
+}
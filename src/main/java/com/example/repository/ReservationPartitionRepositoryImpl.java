@@ -0,0 +1,31 @@
+package com.example.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementace ReservationPartitionRepository voláním funkcí create_reservation_partition
+ * a archive_reservation_partitions z migrace V11 (souběh uzlů řeší advisory zámek z V13). Každé volání je
+ * samostatná transakce.
+ */
+class ReservationPartitionRepositoryImpl implements ReservationPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReservationPartitionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean createPartition(LocalDate month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT create_reservation_partition(?)", Boolean.class, month));
+    }
+
+    @Override
+    public List<String> archivePartitionsBefore(LocalDate before) {
+        return jdbcTemplate.queryForList("SELECT archive_reservation_partitions(?)", String.class, before);
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.repository;
 
+import com.example.dto.ReservationExportRow;
+import com.example.dto.ReservationView;
 import com.example.entity.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA repozitář pro entitu Reservation.
  * Poskytuje metody pro práci s rezervacemi v databázi.
- * Dědí z JpaRepository, což automaticky přidává základní CRUD operace.
+ * Dědí z JpaRepository, což automaticky přidává základní CRUD operace,
+ * z JpaSpecificationExecutor pro dynamické filtrování (viz ReservationSpecifications),
+ * z ReservationViewRepository pro stránkovaný výpis v administraci,
+ * z ReservationSearchRepository pro fulltextové hledání v poznámkách
+ * a z ReservationPartitionRepository pro správu měsíčních partitions tabulky.
  */
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation>,
+        ReservationViewRepository, ReservationSearchRepository, ReservationPartitionRepository {
 
     /**
      * Vyhledá rezervace podle ID uživatele.
@@ -20,6 +37,29 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
      */
     List<Reservation> findByUserId(Long userId);
 
+    /**
+     * Načte výpis rezervací uživatele jedním dotazem - jen zobrazované sloupce, bez entit uživatele a rolí.
+     * @param userId ID uživatele, jehož rezervace se hledají.
+     * @return Řádky výpisu seřazené podle začátku rezervace.
+     */
+    @Query("SELECT new com.example.dto.ReservationView(r.id, f.id, f.name, r.reservationDate, r.startTime, r.endTime,"
+            + " r.note, u.id, u.name) FROM Reservation r JOIN r.facility f JOIN r.user u"
+            + " WHERE u.id = :userId ORDER BY r.startTime, r.id")
+    List<ReservationView> findViewsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Rezervace od daného dne, které připadají na den uzavření svého sportoviště nebo všech sportovišť
+     * (tabulka facility_closures). Vznikly před přidáním dne uzavření a je potřeba je vyřešit ručně.
+     * @param from První den (včetně).
+     * @return Rezervace seřazené podle data a začátku.
+     */
+    @Query("SELECT new com.example.dto.ReservationView(r.id, f.id, f.name, r.reservationDate, r.startTime, r.endTime,"
+            + " r.note, u.id, u.name) FROM Reservation r JOIN r.facility f JOIN r.user u"
+            + " WHERE r.reservationDate >= :from AND EXISTS (SELECT 1 FROM FacilityClosure c"
+            + "     WHERE c.closureDate = r.reservationDate AND (c.facility IS NULL OR c.facility = f))"
+            + " ORDER BY r.reservationDate, r.startTime, r.id")
+    List<ReservationView> findViewsOnClosedDays(@Param("from") LocalDate from);
+
     /**
      * Vyhledá rezervace na základě data rezervace.
      * @param reservationDate Datum, pro které se hledají rezervace.
@@ -28,10 +68,84 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findByReservationDate(LocalDate reservationDate);
 
     /**
-     * Vyhledá rezervace na základě data a názvu sportoviště.
+     * Vyhledá rezervace na základě data a sportoviště.
      * @param reservationDate Datum rezervace.
-     * @param title Název sportoviště (např. "Tělocvična" nebo "Bazén").
+     * @param facilityId ID sportoviště.
      * @return Seznam rezervací pro dané sportoviště a datum.
      */
-    List<Reservation> findByReservationDateAndTitle(LocalDate reservationDate, String title);
+    List<Reservation> findByReservationDateAndFacilityId(LocalDate reservationDate, Integer facilityId);
+
+    /**
+     * Vyhledá rezervace vybraných sportovišť v rozsahu dní (včetně krajních dnů).
+     * Slouží k načtení obsazenosti pro více dní a sportovišť jedním dotazem.
+     * @param from První den rozsahu.
+     * @param to Poslední den rozsahu.
+     * @param facilityIds ID sportovišť.
+     * @return Seznam rezervací v daném rozsahu.
+     */
+    List<Reservation> findByReservationDateBetweenAndFacilityIdIn(LocalDate from, LocalDate to, Collection<Integer> facilityIds);
+
+    /**
+     * Vyhledá rezervace sportoviště ve vybraných dnech - slouží ke kontrole kolizí
+     * všech termínů opakované rezervace jedním dotazem.
+     * @param facilityId ID sportoviště.
+     * @param dates Dny, ve kterých se hledá.
+     * @return Seznam rezervací sportoviště v daných dnech.
+     */
+    List<Reservation> findByFacilityIdAndReservationDateIn(Integer facilityId, Collection<LocalDate> dates);
+
+    /**
+     * Postupně načítá řádky exportu všech rezervací (se sportovištěm a e-mailem uživatele), seřazené podle ID.
+     * Díky velikosti fetch size čte PostgreSQL ovladač výsledky po dávkách přes kurzor
+     * místo načtení celé tabulky do paměti. Volat jen uvnitř transakce a stream vždy zavřít.
+     * @return Stream řádků exportu.
+     */
+    @Query("SELECT new com.example.dto.ReservationExportRow(r.id, f.name, r.reservationDate, r.startTime, r.endTime,"
+            + " r.note, u.email) FROM Reservation r JOIN r.facility f JOIN r.user u ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ReservationExportRow> streamExportRows();
+
+    /**
+     * Zjistí, zda na sportovišti existuje v daný den rezervace překrývající interval [startTime, endTime).
+     * Rezervace nepřesahují přes půlnoc, proto stačí hledat v rámci jednoho dne - dotaz tak
+     * obslouží index (reservation_date, facility_id).
+     * @param facilityId ID sportoviště.
+     * @param reservationDate Den rezervace.
+     * @param endTime Konec nového intervalu.
+     * @param startTime Začátek nového intervalu.
+     * @return true, pokud se interval překrývá s existující rezervací.
+     */
+    boolean existsByFacilityIdAndReservationDateAndStartTimeLessThanAndEndTimeGreaterThan(
+            Integer facilityId, LocalDate reservationDate, LocalDateTime endTime, LocalDateTime startTime);
+
+    /**
+     * Upraví rezervaci jediným podmíněným příkazem - jen pokud má stále očekávanou verzi a nový termín
+     * se nepřekrývá s jinou rezervací na stejném sportovišti. Verze se zvýší o jedna.
+     * Self-join na "old" vidí řádek ve stavu před úpravou, takže RETURNING vrací původní sportoviště
+     * a den (potřebné pro zneplatnění obsazenosti) bez dalšího dotazu.
+     * Volat uvnitř transakce pod zámkem sportoviště a nového dne rezervace.
+     * @return Původní sportoviště a den; prázdné, pokud se nic neupravilo (rezervace neexistuje,
+     *         má jinou verzi nebo se nový termín překrývá).
+     */
+    @Query(value = "UPDATE reservations r SET facility_id = :facilityId, start_time = :startTime, end_time = :endTime,"
+            + " reservation_date = :reservationDate, note = :note, version = r.version + 1"
+            + " FROM reservations old"
+            + " WHERE r.id = :id AND r.version = :version AND old.id = r.id"
+            + " AND NOT EXISTS (SELECT 1 FROM reservations o WHERE o.facility_id = :facilityId"
+            + " AND o.reservation_date = :reservationDate AND o.start_time < :endTime AND o.end_time > :startTime"
+            + " AND o.id <> :id)"
+            + " RETURNING old.facility_id AS facilityId, old.reservation_date AS reservationDate",
+            nativeQuery = true)
+    Optional<ReservationSlot> updateIfVersion(@Param("id") Long id, @Param("version") long version,
+                                              @Param("facilityId") Integer facilityId,
+                                              @Param("reservationDate") LocalDate reservationDate,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime,
+                                              @Param("note") String note);
+
+    /**
+     * Načte aktuální verzi rezervace (po neúspěšném updateIfVersion určí, proč se úprava neprovedla).
+     */
+    @Query("SELECT r.version FROM Reservation r WHERE r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,30 @@
+package com.example.repository;
+
+import com.example.dto.ReservationView;
+import org.springframework.data.domain.Window;
+
+/**
+ * Vlastní část repozitáře rezervací pro fulltextové hledání v poznámkách.
+ * Implementace je v ReservationSearchRepositoryImpl, Spring Data ji připojí k ReservationRepository.
+ */
+public interface ReservationSearchRepository {
+
+    /**
+     * Nejvýše tolik shodných rezervací se řadí podle relevance. U častých slov (shoda se statisíci
+     * poznámek) by výpočet relevance všech shod trval stovky milisekund; řadí se proto jen prvních
+     * MAX_CANDIDATES shod v pořadí GIN indexu a další stránky za touto hranicí nejsou. Kdo potřebuje
+     * víc, má hledaný text zpřesnit dalším slovem.
+     */
+    int MAX_CANDIDATES = 1000;
+
+    /**
+     * Najde rezervace, jejichž poznámka obsahuje všechna slova hledaného textu (každé i jako začátek
+     * delšího slova), seřazené podle relevance a pak od nejnovější. Řadí se nejvýše MAX_CANDIDATES shod.
+     * @param text Hledaný text zadaný uživatelem; jiné znaky než písmena a číslice se ignorují.
+     * @param offset Počet přeskočených výsledků (stránka * velikost stránky).
+     * @param limit Velikost stránky.
+     * @return Okno s nejvýše limit řádky a informací, zda existuje další stránka;
+     *         prázdné, pokud text neobsahuje žádné slovo.
+     */
+    Window<ReservationView> searchNotes(String text, int offset, int limit);
+}
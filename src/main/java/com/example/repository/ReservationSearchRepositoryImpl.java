@@ -0,0 +1,80 @@
+package com.example.repository;
+
+import com.example.dto.ReservationView;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Implementace ReservationSearchRepository nativním dotazem nad sloupcem search_vector (migrace V10).
+ * Shodu najde GIN index, relevance (ts_rank) se počítá jen pro nejvýše MAX_CANDIDATES shodných řádků
+ * a spojení na sportoviště a uživatele proběhne až pro řádky jedné stránky.
+ */
+class ReservationSearchRepositoryImpl implements ReservationSearchRepository {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAX_WORDS = 8;
+
+    private static final String SEARCH = "SELECT r.id, f.id, f.name, r.reservation_date, r.start_time, r.end_time,"
+            + " r.note, u.id, u.name"
+            + " FROM (SELECT id, reservation_date, rank"
+            + "       FROM (SELECT id, reservation_date, ts_rank(search_vector, query) AS rank"
+            + "             FROM reservations, to_tsquery('simple', ?) query"
+            + "             WHERE search_vector @@ query"
+            + "             LIMIT ?) candidate"  // Relevance se počítá nejvýše pro MAX_CANDIDATES shod
+            + "       ORDER BY rank DESC, reservation_date DESC, id DESC"
+            + "       LIMIT ? OFFSET ?) hit"
+            + " JOIN reservations r ON r.id = hit.id AND r.reservation_date = hit.reservation_date"
+            + " JOIN facilities f ON f.id = r.facility_id"
+            + " JOIN users u ON u.id = r.user_id"
+            + " ORDER BY hit.rank DESC, hit.reservation_date DESC, hit.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReservationSearchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Window<ReservationView> searchNotes(String text, int offset, int limit) {
+        String query = prefixQuery(text);
+        if (query.isEmpty()) {
+            return Window.from(List.of(), ScrollPosition::offset);
+        }
+
+        List<ReservationView> rows = jdbcTemplate.query(SEARCH, (rs, rowNum) -> new ReservationView(
+                        rs.getLong(1), rs.getInt(2), rs.getString(3),
+                        rs.getObject(4, LocalDate.class), rs.getObject(5, LocalDateTime.class),
+                        rs.getObject(6, LocalDateTime.class), rs.getString(7), rs.getLong(8), rs.getString(9)),
+                query, MAX_CANDIDATES, limit + 1, offset);  // Jeden řádek navíc říká, zda existuje další stránka
+        boolean hasNext = rows.size() > limit;
+        List<ReservationView> content = hasNext ? rows.subList(0, limit) : rows;
+
+        return Window.from(content, index -> ScrollPosition.offset(offset + index), hasNext);
+    }
+
+    /**
+     * Převede text na dotaz to_tsquery, kde se musí vyskytnout všechna slova, každé i jako začátek
+     * delšího slova: "Sokol turnaj" -> "sokol:* & turnaj:*". Ze vstupu se berou jen písmena a číslice,
+     * takže výsledek nemůže obsahovat operátory dotazu.
+     */
+    private static String prefixQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        Matcher words = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        return words.results()
+                .map(match -> match.group() + ":*")
+                .distinct()
+                .limit(MAX_WORDS)
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projekce sportoviště a dne rezervace - vrací ji ReservationRepository.updateIfVersion
+ * s hodnotami platnými před úpravou.
+ */
+public interface ReservationSlot {
+
+    Integer getFacilityId();
+
+    LocalDate getReservationDate();
+}
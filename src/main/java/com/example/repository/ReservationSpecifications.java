@@ -0,0 +1,48 @@
+package com.example.repository;
+
+import com.example.entity.Reservation;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Specifikace (dynamické podmínky) pro filtrování rezervací v administraci.
+ * Každá metoda vrací null, pokud filtr není zadán - taková podmínka se při skládání ignoruje.
+ */
+public final class ReservationSpecifications {
+
+    private ReservationSpecifications() {
+    }
+
+    /**
+     * Rezervace daného sportoviště.
+     */
+    public static Specification<Reservation> hasFacility(Integer facilityId) {
+        return facilityId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("facility").get("id"), facilityId);
+    }
+
+    /**
+     * Rezervace od daného dne (včetně).
+     */
+    public static Specification<Reservation> fromDate(LocalDate from) {
+        return from == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("reservationDate"), from);
+    }
+
+    /**
+     * Rezervace do daného dne (včetně).
+     */
+    public static Specification<Reservation> toDate(LocalDate to) {
+        return to == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("reservationDate"), to);
+    }
+
+    /**
+     * Rezervace daného uživatele.
+     */
+    public static Specification<Reservation> ofUser(Long userId) {
+        return userId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+}
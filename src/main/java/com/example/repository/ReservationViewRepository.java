@@ -0,0 +1,23 @@
+package com.example.repository;
+
+import com.example.dto.ReservationCursor;
+import com.example.dto.ReservationView;
+import com.example.entity.Reservation;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Vlastní část repozitáře rezervací pro stránkovaný výpis v administraci.
+ * Implementace je v ReservationViewRepositoryImpl, Spring Data ji připojí k ReservationRepository.
+ */
+public interface ReservationViewRepository {
+
+    /**
+     * Načte jednu stránku výpisu rezervací metodou keyset (seek) v pořadí (reservationDate, startTime, id).
+     * @param spec Podmínky filtru (viz ReservationSpecifications), může být null.
+     * @param after Kurzor poslední rezervace předchozí stránky, nebo null pro první stránku.
+     * @param limit Velikost stránky.
+     * @return Okno s nejvýše limit řádky a informací, zda existuje další stránka.
+     */
+    Window<ReservationView> findViewPage(Specification<Reservation> spec, ReservationCursor after, int limit);
+}
@@ -0,0 +1,90 @@
+package com.example.repository;
+
+import com.example.dto.ReservationCursor;
+import com.example.dto.ReservationView;
+import com.example.entity.Facility;
+import com.example.entity.Reservation;
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementace ReservationViewRepository pomocí Criteria API.
+ * Vybírá rovnou ReservationView (konstruktorový výraz), takže se nenačítají entity rezervací,
+ * uživatelů ani jejich rolí - celá stránka je jeden SELECT se dvěma spojeními.
+ */
+class ReservationViewRepositoryImpl implements ReservationViewRepository {
+
+    private final EntityManager entityManager;
+
+    ReservationViewRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Window<ReservationView> findViewPage(Specification<Reservation> spec, ReservationCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationView> query = cb.createQuery(ReservationView.class);
+        Root<Reservation> root = query.from(Reservation.class);
+        Join<Reservation, Facility> facility = root.join("facility");
+        Join<Reservation, User> user = root.join("user");
+
+        query.select(cb.construct(ReservationView.class,
+                root.get("id"), facility.get("id"), facility.get("name"), root.get("reservationDate"),
+                root.get("startTime"), root.get("endTime"), root.get("note"), user.get("id"), user.get("name")));
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate filter = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        if (after != null) {
+            where.add(after(cb, root, after));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get("reservationDate")), cb.asc(root.get("startTime")), cb.asc(root.get("id")));
+
+        List<ReservationView> rows = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)  // Jeden řádek navíc říká, zda existuje další stránka
+                .getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<ReservationView> content = hasNext ? rows.subList(0, limit) : rows;
+
+        return Window.from(content, index -> {
+            ReservationView row = content.get(index);
+            return ScrollPosition.forward(Map.of(
+                    "reservationDate", row.reservationDate(),
+                    "startTime", row.startTime(),
+                    "id", row.id()));
+        }, hasNext);
+    }
+
+    /**
+     * Podmínka "za kurzorem": (reservationDate, startTime, id) > (kurzor), rozepsaná pro JPA,
+     * které neumí porovnávat n-tice.
+     */
+    private static Predicate after(CriteriaBuilder cb, Root<Reservation> root, ReservationCursor cursor) {
+        Path<LocalDate> date = root.get("reservationDate");
+        Path<LocalDateTime> start = root.get("startTime");
+        Path<Long> id = root.get("id");
+        return cb.or(
+                cb.greaterThan(date, cursor.reservationDate()),
+                cb.and(cb.equal(date, cursor.reservationDate()), cb.or(
+                        cb.greaterThan(start, cursor.startTime()),
+                        cb.and(cb.equal(start, cursor.startTime()), cb.greaterThan(id, cursor.id())))));
+    }
+}
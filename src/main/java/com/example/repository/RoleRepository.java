@@ -1,7 +1,10 @@
 package com.example.repository;
 
 import com.example.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * JPA repozitář pro entitu Role.
@@ -13,7 +16,9 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     /**
      * Vyhledá roli podle názvu.
      * @param name Název role (např. ROLE_ADMIN, ROLE_USER).
+     * Výsledek se drží v cache dotazů, samotná role v druhoúrovňové cache.
      * @return Role odpovídající danému názvu, pokud existuje.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Role findByName(String name);
 }
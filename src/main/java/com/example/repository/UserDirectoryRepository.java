@@ -0,0 +1,22 @@
+package com.example.repository;
+
+import com.example.dto.UserCursor;
+import com.example.dto.UserSummary;
+import org.springframework.data.domain.Window;
+
+/**
+ * Vlastní část repozitáře uživatelů pro stránkovaný a prohledávatelný adresář v administraci.
+ * Implementace je v UserDirectoryRepositoryImpl, Spring Data ji připojí k UserRepository.
+ */
+public interface UserDirectoryRepository {
+
+    /**
+     * Načte jednu stránku adresáře metodou keyset (seek) v pořadí (name, id).
+     * @param search Hledaný text - část jména nebo e-mailu bez ohledu na velikost písmen; null nebo prázdný
+     *               řetězec znamená všechny uživatele.
+     * @param after Kurzor posledního uživatele předchozí stránky, nebo null pro první stránku.
+     * @param limit Velikost stránky.
+     * @return Okno s nejvýše limit řádky a informací, zda existuje další stránka.
+     */
+    Window<UserSummary> findSummaryPage(String search, UserCursor after, int limit);
+}
@@ -0,0 +1,71 @@
+package com.example.repository;
+
+import com.example.dto.UserCursor;
+import com.example.dto.UserSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Implementace UserDirectoryRepository jedním dotazem JPQL nad projekcí UserSummary.
+ * Hledání je LIKE '%text%' nad lower(name) a lower(email) - obslouží ho trigramové GIN indexy
+ * z migrace V9 pro podřetězce i prefixy; řazení a kurzor obslouží index (name, id).
+ * Text kratší než 3 znaky trigram nemá, takový dotaz by prošel celou tabulku - proto ho
+ * UserService.getUserDirectoryPage odmítne dřív, než se sem dostane.
+ */
+class UserDirectoryRepositoryImpl implements UserDirectoryRepository {
+
+    private final EntityManager entityManager;
+
+    UserDirectoryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Window<UserSummary> findSummaryPage(String search, UserCursor after, int limit) {
+        boolean searching = search != null && !search.isBlank();
+        List<String> where = new ArrayList<>();
+        if (searching) {
+            where.add("(lower(u.name) LIKE :pattern ESCAPE '\\' OR lower(u.email) LIKE :pattern ESCAPE '\\')");
+        }
+        if (after != null) {
+            where.add("(u.name > :afterName OR (u.name = :afterName AND u.id > :afterId))");
+        }
+
+        TypedQuery<UserSummary> query = entityManager.createQuery(
+                "SELECT new com.example.dto.UserSummary(u.id, u.name, u.email) FROM User u"
+                        + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where))
+                        + " ORDER BY u.name, u.id", UserSummary.class);
+        if (searching) {
+            query.setParameter("pattern", "%" + escapeLike(search.strip().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (after != null) {
+            query.setParameter("afterName", after.name());
+            query.setParameter("afterId", after.id());
+        }
+
+        List<UserSummary> rows = query
+                .setMaxResults(limit + 1)  // Jeden řádek navíc říká, zda existuje další stránka
+                .getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<UserSummary> content = hasNext ? rows.subList(0, limit) : rows;
+
+        return Window.from(content, index -> {
+            UserSummary row = content.get(index);
+            return ScrollPosition.forward(Map.of("name", row.name(), "id", row.id()));
+        }, hasNext);
+    }
+
+    /**
+     * Zneškodní zástupné znaky LIKE, aby se hledalo doslova (např. "_" v e-mailu).
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vlastní část repozitáře uživatelů pro vkládání nových uživatelů i s rolí jediným příkazem.
+ * Implementace je v UserInsertRepositoryImpl, Spring Data ji připojí k UserRepository.
+ * Zápis jde mimo Hibernate, volající proto po vložení zneplatňuje cache dotazů (EntityCache).
+ */
+public interface UserInsertRepository {
+
+    /**
+     * Nový uživatel s již zahashovaným heslem.
+     */
+    record NewUser(String name, String email, String passwordHash) {
+    }
+
+    /**
+     * Vloží uživatele a přiřadí mu roli. Obsazený e-mail hlídá unikátní omezení v databázi,
+     * takže ani dvě souběžné registrace se stejným e-mailem neskončí chybou.
+     * @param user Nový uživatel.
+     * @param roleName Název role (musí existovat).
+     * @return true, pokud byl uživatel vložen; false, pokud účet s tímto e-mailem už existuje.
+     */
+    boolean insertWithRole(NewUser user, String roleName);
+
+    /**
+     * Vloží uživatele v jedné JDBC dávce, uživatele s již existujícím e-mailem přeskočí.
+     * @param users Noví uživatelé.
+     * @param roleName Název role (musí existovat).
+     * @return Počet skutečně vložených uživatelů.
+     */
+    int insertAllWithRole(List<NewUser> users, String roleName);
+
+    /**
+     * Zjistí, které z e-mailů už mají účet (jedním dotazem), aby se pro ně zbytečně nehashovalo heslo.
+     * @param emails E-maily ke kontrole.
+     * @return Podmnožina e-mailů, pod kterými účet existuje.
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+}
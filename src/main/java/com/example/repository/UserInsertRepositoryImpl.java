@@ -0,0 +1,65 @@
+package com.example.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementace UserInsertRepository pomocí JdbcTemplate.
+ * Uživatel i jeho role se vkládají jedním příkazem (INSERT v CTE), ON CONFLICT (email) DO NOTHING
+ * místo výjimky jen nic nevloží - transakce tak zůstane použitelná i uprostřed dávky.
+ */
+class UserInsertRepositoryImpl implements UserInsertRepository {
+
+    private static final String INSERT_WITH_ROLE = "WITH new_user AS ("
+            + " INSERT INTO users (name, email, password) VALUES (?, ?, ?)"
+            + " ON CONFLICT (email) DO NOTHING"
+            + " RETURNING id)"
+            + " INSERT INTO users_roles (user_id, role_id)"
+            + " SELECT new_user.id, roles.id FROM new_user JOIN roles ON roles.name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UserInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertWithRole(NewUser user, String roleName) {
+        return jdbcTemplate.update(INSERT_WITH_ROLE, ps -> bind(ps, user, roleName)) > 0;
+    }
+
+    @Override
+    public int insertAllWithRole(List<NewUser> users, String roleName) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_WITH_ROLE, users, users.size(),
+                (ps, user) -> bind(ps, user, roleName));
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement("SELECT email FROM users WHERE email = ANY (?)");
+                    ps.setArray(1, con.createArrayOf("varchar", emails.toArray()));
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getString(1)));
+    }
+
+    private static void bind(PreparedStatement ps, NewUser user, String roleName) throws SQLException {
+        ps.setString(1, user.name());
+        ps.setString(2, user.email());
+        ps.setString(3, user.passwordHash());
+        ps.setString(4, roleName);
+    }
+}
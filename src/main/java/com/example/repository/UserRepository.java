@@ -1,22 +1,30 @@
 package com.example.repository;
 
 import com.example.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 /**
  * JPA repozitář pro entitu User.
  * Poskytuje metody pro práci s uživateli v databázi.
- * Dědí z JpaRepository, což automaticky přidává základní CRUD operace.
+ * Dědí z JpaRepository, což automaticky přidává základní CRUD operace,
+ * z UserInsertRepository pro vkládání nových uživatelů jedním příkazem (registrace, hromadný import)
+ * a z UserDirectoryRepository pro stránkovaný adresář uživatelů v administraci.
  */
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserInsertRepository, UserDirectoryRepository {
 
     /**
      * Vyhledá uživatele podle emailu.
      * @param email Email uživatele.
+     * Výsledek (ID uživatele) se drží v cache dotazů, uživatel a jeho role v druhoúrovňové cache,
+     * opakované přihlášení se tak obejde bez dotazu do databáze.
      * @return Uživatel odpovídající danému emailu, pokud existuje.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     User findByEmail(String email);
 
         // Načte uživatele i s jeho rolemi
@@ -6,6 +6,7 @@ import com.example.repository.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,9 +17,10 @@ import java.util.stream.Collectors;
 /**
  * Třída implementující UserDetailsService pro autentizaci uživatelů pomocí Spring Security.
  * Načítá uživatele z databáze na základě e-mailu a mapuje role na oprávnění (GrantedAuthority).
+ * Jako UserDetailsPasswordService ukládá přepočítané hashe hesel po přihlášení (změna ceny nebo algoritmu).
  */
 @Service
-public class AuthentizationService implements UserDetailsService {
+public class AuthentizationService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -53,6 +55,28 @@ public class AuthentizationService implements UserDetailsService {
         }
     }
     
+    /**
+     * Uloží nový hash hesla uživatele. Volá ho Spring Security po úspěšném přihlášení,
+     * pokud uložený hash neodpovídá aktuálnímu algoritmu nebo ceně.
+     * @param userDetails Přihlášený uživatel.
+     * @param newPassword Nový hash hesla.
+     * @return UserDetails s novým hashem.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername());
+        if (user == null) {
+            return userDetails;
+        }
+        user.setPassword(newPassword);
+        userRepository.save(user);
+
+        return new org.springframework.security.core.userdetails.User(
+                user.getEmail(),
+                newPassword,
+                userDetails.getAuthorities());
+    }
+
     /**
      * Převede role uživatele na kolekci GrantedAuthority (oprávnění).
      * @param roles Kolekce rolí uživatele.
@@ -0,0 +1,81 @@
+package com.example.service;
+
+import com.example.config.EntityCacheConfig;
+import com.example.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Zneplatňování a statistiky druhoúrovňové cache Hibernate (viz EntityCacheConfig).
+ * Změny přes Hibernate (save, delete) si regiony aktualizují samy, dotazy z cache se zneplatní
+ * podle času poslední změny tabulky. Zápisy mimo Hibernate (JDBC, nativní SQL) ale cache nevidí,
+ * proto je služby po takovém zápisu zneplatňují explicitně - stejně jako UserIdentityCache.
+ */
+@Component
+public class EntityCache {
+
+    private static final String USER_ROLES_ROLE = User.class.getName() + ".roles";
+
+    private final Cache cache;
+    private final Statistics statistics;
+
+    public EntityCache(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+    }
+
+    /**
+     * Odstraní uživatele a jeho role z cache a zneplatní výsledky dotazů (hledání podle e-mailu).
+     */
+    public void evictUser(Long id) {
+        cache.evictEntityData(User.class, id);
+        cache.evictCollectionData(USER_ROLES_ROLE, id);
+        cache.evictDefaultQueryRegion();
+    }
+
+    /**
+     * Zneplatní výsledky dotazů po vložení uživatelů mimo Hibernate - jinak by hledání podle e-mailu
+     * mohlo z cache vracet, že uživatel neexistuje.
+     */
+    public void evictUserQueries() {
+        cache.evictDefaultQueryRegion();
+    }
+
+    /**
+     * Statistiky jednotlivých regionů (zásahy, výpadky, vložení) a počty dotazů z cache dotazů.
+     * Vyžaduje hibernate.generate_statistics=true, jinak jsou všechny hodnoty nulové.
+     */
+    public Map<String, Object> statistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String region : new String[] {EntityCacheConfig.ROLES, EntityCacheConfig.USERS,
+                EntityCacheConfig.USER_ROLES, EntityCacheConfig.FACILITIES}) {
+            result.put(region, regionStatistics(statistics.getDomainDataRegionStatistics(region)));
+        }
+        result.put(EntityCacheConfig.QUERY_RESULTS,
+                regionStatistics(statistics.getQueryRegionStatistics(EntityCacheConfig.QUERY_RESULTS)));
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private static Map<String, Object> regionStatistics(CacheRegionStatistics region) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (region == null) {
+            return result;
+        }
+        long requests = region.getHitCount() + region.getMissCount();
+        result.put("hitCount", region.getHitCount());
+        result.put("missCount", region.getMissCount());
+        result.put("putCount", region.getPutCount());
+        result.put("hitRate", requests == 0 ? 0.0 : (double) region.getHitCount() / requests);
+        return result;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.service;
+
+import com.example.entity.Facility;
+import com.example.entity.FacilityClosure;
+import com.example.entity.FacilityOpeningHours;
+import com.example.repository.FacilityClosureRepository;
+import com.example.repository.FacilityOpeningHoursRepository;
+import com.example.repository.FacilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servisní třída pro sportoviště.
+ * Sportoviště a jejich provozní kalendáře (provozní doba, dny uzavření) jsou referenční data, která se mění
+ * zřídka a mimo aplikaci (SQL nebo migrace), proto se drží v paměti. Načtou se při prvním použití a znovu
+ * po uplynutí app.facilities.refresh-interval, nebo hned na pokyn administrátora (reload). Nový den uzavření
+ * tedy začne platit pro nové rezervace nejpozději po tomto intervalu; rezervace, které na něj už existují,
+ * se nemění a administrace je vypíše (ReservationService.getReservationsOnClosedDays).
+ * Den s neplatnou provozní dobou (nekladná délka slotu, víc než SlotGrid.MAX_SLOTS slotů) se při načtení
+ * zaloguje a považuje za zavřený; ostatní dny a sportoviště se načtou normálně.
+ */
+@Service
+public class FacilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(FacilityService.class);
+
+    private final FacilityRepository facilityRepository;
+    private final FacilityOpeningHoursRepository openingHoursRepository;
+    private final FacilityClosureRepository closureRepository;
+    private final long refreshNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Catalog catalog;
+
+    /**
+     * Načtená sportoviště (seřazená podle názvu) a jejich provozní kalendáře.
+     * @param loadedAt Okamžik načtení (System.nanoTime).
+     */
+    private record Catalog(Map<Integer, Facility> facilities, Map<Integer, OpeningHoursCalendar> calendars, long loadedAt) {
+    }
+
+    public FacilityService(FacilityRepository facilityRepository, FacilityOpeningHoursRepository openingHoursRepository,
+                           FacilityClosureRepository closureRepository,
+                           @Value("${app.facilities.refresh-interval:5m}") Duration refreshInterval) {
+        this.facilityRepository = facilityRepository;
+        this.openingHoursRepository = openingHoursRepository;
+        this.closureRepository = closureRepository;
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Znovu načte sportoviště a kalendáře z databáze (např. po přidání dne uzavření).
+     */
+    public void reload() {
+        catalog = load();
+    }
+
+    /**
+     * Vrátí všechna sportoviště seřazená podle názvu.
+     * @return Seznam sportovišť.
+     */
+    public List<Facility> findAll() {
+        return List.copyOf(catalog().facilities().values());
+    }
+
+    /**
+     * Vrátí sportoviště podle ID.
+     * @param id ID sportoviště.
+     * @return Sportoviště.
+     * @throws IllegalArgumentException Pokud sportoviště s daným ID neexistuje.
+     */
+    public Facility getFacility(Integer id) {
+        Facility facility = id == null ? null : catalog().facilities().get(id);
+        if (facility == null) {
+            throw new IllegalArgumentException("Neznámé sportoviště: " + id);
+        }
+        return facility;
+    }
+
+    /**
+     * Zda sportoviště s daným ID existuje.
+     */
+    public boolean exists(Integer id) {
+        return id != null && catalog().facilities().containsKey(id);
+    }
+
+    /**
+     * Vrátí provozní kalendář sportoviště.
+     * @param id ID sportoviště.
+     * @return Provozní kalendář.
+     * @throws IllegalArgumentException Pokud sportoviště s daným ID neexistuje.
+     */
+    public OpeningHoursCalendar getCalendar(Integer id) {
+        getFacility(id);
+        return catalog().calendars().get(id);
+    }
+
+    /**
+     * Vrátí rozložení rezervačních slotů sportoviště v daný den podle jeho provozního kalendáře.
+     * @param id ID sportoviště.
+     * @param date Datum.
+     * @return Rozložení slotů, ve dny uzavření SlotGrid.CLOSED.
+     * @throws IllegalArgumentException Pokud sportoviště s daným ID neexistuje.
+     */
+    public SlotGrid getSlotGrid(Integer id, LocalDate date) {
+        return getCalendar(id).gridFor(date);
+    }
+
+    private Catalog catalog() {
+        Catalog loaded = catalog;
+        if (loaded == null) {
+            loaded = catalog = load();  // Souběžné první načtení je neškodné, výsledek je stejný
+        } else if (System.nanoTime() - loaded.loadedAt() > refreshNanos && refreshing.compareAndSet(false, true)) {
+            // Obnovuje jediné vlákno, ostatní zatím pracují s dosavadním katalogem
+            try {
+                loaded = catalog = load();
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Načte sportoviště a sestaví jejich kalendáře. Stejná rozložení slotů se sdílí mezi dny
+     * i sportovišti, v paměti je tak jen jedna instance SlotGrid pro každou odlišnou provozní dobu.
+     */
+    private Catalog load() {
+        Map<Integer, Map<DayOfWeek, FacilityOpeningHours>> hours = new HashMap<>();
+        for (FacilityOpeningHours day : openingHoursRepository.findAll()) {
+            hours.computeIfAbsent(day.getFacility().getId(), id -> new HashMap<>()).put(day.getDay(), day);
+        }
+        Set<LocalDate> everywhere = new HashSet<>();
+        Map<Integer, Set<LocalDate>> closures = new HashMap<>();
+        for (FacilityClosure closure : closureRepository.findAll()) {
+            if (closure.getFacility() == null) {
+                everywhere.add(closure.getClosureDate());
+            } else {
+                closures.computeIfAbsent(closure.getFacility().getId(), id -> new HashSet<>()).add(closure.getClosureDate());
+            }
+        }
+
+        Map<SlotGrid, SlotGrid> grids = new HashMap<>();
+        Map<Integer, Facility> byId = new LinkedHashMap<>();
+        Map<Integer, OpeningHoursCalendar> calendars = new HashMap<>();
+        facilityRepository.findAll().stream()
+                .sorted(Comparator.comparing(Facility::getName))
+                .forEach(facility -> {
+                    Map<DayOfWeek, FacilityOpeningHours> facilityHours = hours.getOrDefault(facility.getId(), Map.of());
+                    SlotGrid[] week = new SlotGrid[7];
+                    for (DayOfWeek day : DayOfWeek.values()) {
+                        SlotGrid grid = validSlotGrid(facility, day, facilityHours.get(day));
+                        week[day.getValue() - 1] = grids.computeIfAbsent(grid, g -> g);
+                    }
+                    Set<LocalDate> closed = new HashSet<>(everywhere);
+                    closed.addAll(closures.getOrDefault(facility.getId(), Set.of()));
+
+                    byId.put(facility.getId(), facility);
+                    calendars.put(facility.getId(), new OpeningHoursCalendar(week, closed));
+                });
+        return new Catalog(byId, calendars, System.nanoTime());
+    }
+
+    /**
+     * Rozložení slotů dne, nebo SlotGrid.CLOSED, pokud jsou údaje dne neplatné. Jeden chybný řádek tak
+     * nezablokuje celý katalog (a s ním rezervace všech sportovišť).
+     */
+    private static SlotGrid validSlotGrid(Facility facility, DayOfWeek day, FacilityOpeningHours hours) {
+        try {
+            return slotGrid(facility, hours);
+        } catch (IllegalArgumentException e) {
+            log.warn("Neplatná provozní doba sportoviště {} ({}) pro {}, den je zavřený: {}",
+                    facility.getId(), facility.getName(), day, e.getMessage());
+            return SlotGrid.CLOSED;
+        }
+    }
+
+    /**
+     * Rozložení slotů pro jeden den v týdnu: výchozí hodnoty sportoviště, případně přepsané provozní dobou dne.
+     */
+    private static SlotGrid slotGrid(Facility facility, FacilityOpeningHours day) {
+        if (day == null) {
+            return SlotGrid.of(facility.getOpeningTime(), facility.getClosingTime(), facility.getSlotMinutes());
+        }
+        if (day.isClosed()) {
+            return SlotGrid.CLOSED;
+        }
+        int slotMinutes = day.getSlotMinutes() != null ? day.getSlotMinutes() : facility.getSlotMinutes();
+        return SlotGrid.of(day.getOpeningTime(), day.getClosingTime(), slotMinutes);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.service;
+
+import io.micrometer.common.annotation.ValueResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hodnota tagu facility pro @MeterTag: ID existujícího sportoviště, jinak "unknown".
+ * Parametr pochází z požadavku, bez kontroly by každé vymyšlené ID založilo novou časovou řadu metrik.
+ */
+@Component
+public class FacilityTagResolver implements ValueResolver {
+
+    static final String UNKNOWN = "unknown";
+
+    private final FacilityService facilityService;
+
+    public FacilityTagResolver(FacilityService facilityService) {
+        this.facilityService = facilityService;
+    }
+
+    @Override
+    public String resolve(Object parameter) {
+        return parameter instanceof Integer id && facilityService.exists(id) ? id.toString() : UNKNOWN;
+    }
+}
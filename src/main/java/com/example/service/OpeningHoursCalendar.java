@@ -0,0 +1,32 @@
+package com.example.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Provozní kalendář jednoho sportoviště: rozložení slotů pro každý den v týdnu a dny, kdy je zavřeno.
+ * Kalendář je neměnný a sestavuje se jednou při načtení sportovišť (viz FacilityService).
+ */
+public final class OpeningHoursCalendar {
+
+    private final SlotGrid[] week;  // Index DayOfWeek.getValue() - 1
+    private final Set<LocalDate> closures;
+
+    OpeningHoursCalendar(SlotGrid[] week, Set<LocalDate> closures) {
+        if (week.length != 7) {
+            throw new IllegalArgumentException("Kalendář musí mít rozložení slotů pro všech 7 dní v týdnu");
+        }
+        this.week = week.clone();
+        this.closures = Set.copyOf(closures);
+    }
+
+    /**
+     * Vrátí rozložení slotů pro daný den. Ve dny uzavření vrací SlotGrid.CLOSED.
+     */
+    public SlotGrid gridFor(LocalDate date) {
+        if (closures.contains(date)) {
+            return SlotGrid.CLOSED;
+        }
+        return week[date.getDayOfWeek().getValue() - 1];
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.service;
+
+import com.example.dto.ReservationExportRow;
+import com.example.repository.ReservationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servisní třída pro export všech rezervací (např. pro účetní).
+ * Rezervace se čtou streamem z databáze a po řádcích zapisují přímo do výstupu,
+ * takže spotřeba paměti nezávisí na počtu exportovaných rezervací.
+ */
+@Service
+public class ReservationExportService {
+
+    private static final int FLUSH_EVERY = 1000;  // Po kolika řádcích odeslat data klientovi
+
+    /**
+     * Podporované formáty exportu.
+     */
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final ReservationRepository reservationRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReservationExportService(ReservationRepository reservationRepository, ObjectMapper objectMapper) {
+        this.reservationRepository = reservationRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Zapíše všechny rezervace do výstupu v daném formátu.
+     * Čtou se rovnou řádky exportu (ReservationExportRow), ne entity, takže se nic nehromadí
+     * v persistence contextu a role uživatelů se vůbec nenačítají.
+     * @param format Formát exportu.
+     * @param out Výstupní stream (typicky stream HTTP odpovědi), metoda ho nezavírá.
+     * @throws IOException Chyba zápisu, např. když klient přeruší stahování.
+     */
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (format == ExportFormat.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.setRootValueSeparator(null);  // Objekty oddělujeme jen koncem řádku
+        }
+
+        if (format == ExportFormat.CSV) {
+            writer.write("id,facility,reservation_date,start_time,end_time,note,user_email\n");
+        }
+
+        try (Stream<ReservationExportRow> reservations = reservationRepository.streamExportRows()) {
+            Iterator<ReservationExportRow> iterator = reservations.iterator();
+            int rows = 0;
+            while (iterator.hasNext()) {
+                ReservationExportRow reservation = iterator.next();
+                if (json != null) {
+                    writeJson(json, reservation);
+                } else {
+                    writeCsv(writer, reservation);
+                }
+
+                if (++rows % FLUSH_EVERY == 0) {
+                    if (json != null) {
+                        json.flush();
+                    }
+                    writer.flush();
+                }
+            }
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Writer writer, ReservationExportRow reservation) throws IOException {
+        writer.write(String.valueOf(reservation.id()));
+        writer.write(',');
+        writer.write(csv(reservation.facilityName()));
+        writer.write(',');
+        writer.write(String.valueOf(reservation.reservationDate()));
+        writer.write(',');
+        writer.write(String.valueOf(reservation.startTime()));
+        writer.write(',');
+        writer.write(String.valueOf(reservation.endTime()));
+        writer.write(',');
+        writer.write(csv(reservation.note()));
+        writer.write(',');
+        writer.write(csv(reservation.userEmail()));
+        writer.write('\n');
+    }
+
+    /**
+     * Ošetření hodnoty pro CSV - hodnoty s čárkou, uvozovkami nebo koncem řádku se uzavřou do uvozovek.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static void writeJson(JsonGenerator json, ReservationExportRow reservation) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", reservation.id());
+        json.writeStringField("facility", reservation.facilityName());
+        json.writeStringField("reservationDate", String.valueOf(reservation.reservationDate()));
+        json.writeStringField("startTime", String.valueOf(reservation.startTime()));
+        json.writeStringField("endTime", String.valueOf(reservation.endTime()));
+        json.writeStringField("note", reservation.note());
+        json.writeStringField("userEmail", reservation.userEmail());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
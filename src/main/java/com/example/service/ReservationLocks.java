@@ -0,0 +1,70 @@
+package com.example.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pruhované (striped) zámky pro zápis rezervací.
+ * Zámek se vybírá podle dvojice (sportoviště, den), takže rezervace různých sportovišť
+ * nebo různých dnů mezi sebou téměř nesoupeří. Chrání jen v rámci jedné instance aplikace,
+ * mezi instancemi platí vylučovací omezení v databázi.
+ */
+@Component
+public class ReservationLocks {
+
+    private static final int STRIPES = 64;  // Mocnina dvou kvůli maskování indexu
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public ReservationLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Provede akci pod zámkem pro dané sportoviště a den.
+     * @param facilityId ID sportoviště.
+     * @param date Den rezervace.
+     * @param action Akce, typicky kontrola překryvu a zápis v jedné transakci.
+     * @return Výsledek akce.
+     */
+    public <T> T withLock(Integer facilityId, LocalDate date, Supplier<T> action) {
+        return withLocks(facilityId, List.of(date), action);
+    }
+
+    /**
+     * Provede akci pod zámky pro dané sportoviště a více dní najednou (např. opakovaná rezervace).
+     * Zámky se zamykají vždy ve stejném pořadí (podle indexu), aby nemohlo dojít k uváznutí.
+     * @param facilityId ID sportoviště.
+     * @param dates Dny rezervací.
+     * @param action Akce prováděná pod všemi zámky.
+     * @return Výsledek akce.
+     */
+    public <T> T withLocks(Integer facilityId, Collection<LocalDate> dates, Supplier<T> action) {
+        int[] stripes = dates.stream().mapToInt(date -> stripe(facilityId, date)).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    private static int stripe(Integer facilityId, LocalDate date) {
+        int hash = Objects.hash(facilityId, date);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.service;
+
+import com.example.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Údržba měsíčních partitions tabulky reservations. Po startu aplikace (ApplicationReadyEvent) a pak pravidelně (app.partitions.check-interval)
+ * založí partitions pro aktuální měsíc a app.partitions.months-ahead měsíců dopředu, aby nové rezervace
+ * nekončily v reservations_default, a partitions starší než app.partitions.archive-after-months měsíců
+ * odpojí do schématu archive. Hodnota 0 archivaci vypíná. Chyba (např. nezískaný zámek) se jen zaloguje,
+ * údržba se zopakuje při dalším spuštění. Údržbu může spouštět každý uzel aplikace, databázové funkce
+ * se navzájem vylučují advisory zámkem (migrace V13).
+ */
+@Service
+public class ReservationPartitionService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationPartitionService.class);
+
+    private final ReservationRepository reservationRepository;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService scheduler;
+
+    public ReservationPartitionService(ReservationRepository reservationRepository,
+                                       @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${app.partitions.archive-after-months:24}") int archiveAfterMonths,
+                                       @Value("${app.partitions.check-interval:6h}") Duration checkInterval) {
+        this.reservationRepository = reservationRepository;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.checkInterval = checkInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("reservation-partitions-"));
+    }
+
+    /**
+     * Naplánuje údržbu až po úplném startu aplikace, kdy jsou hotové migrace i celý kontext.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::maintain, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Založí chybějící partitions a archivuje staré. Každé založení i archivace jsou samostatné transakce,
+     * selhání archivace tedy nezruší už založené partitions.
+     */
+    void maintain() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                if (reservationRepository.createPartition(month.plusMonths(i))) {
+                    log.info("Založena partition rezervací pro měsíc {}", month.plusMonths(i));
+                }
+            }
+            if (archiveAfterMonths > 0) {
+                List<String> archived = reservationRepository.archivePartitionsBefore(month.minusMonths(archiveAfterMonths));
+                if (!archived.isEmpty()) {
+                    log.info("Archivovány partitions rezervací {}", archived);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Neošetřená výjimka by zrušila další plánovaná spuštění
+            log.warn("Údržba partitions rezervací selhala, zopakuje se při dalším spuštění", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -1,97 +1,297 @@
 package com.example.service;
 
+import com.example.dto.AvailabilityGrid;
+import com.example.dto.AvailabilityGrid.DayAvailability;
+import com.example.dto.AvailabilityGrid.FacilityAvailability;
+import com.example.dto.ReservationCursor;
+import com.example.dto.ReservationFilter;
+import com.example.dto.ReservationView;
+import com.example.entity.Facility;
 import com.example.entity.Reservation;
 import com.example.entity.User;
+import com.example.exception.ReservationConflictException;
+import com.example.exception.ReservationVersionConflictException;
+import com.example.repository.FacilityRepository;
 import com.example.repository.ReservationRepository;
+import com.example.repository.ReservationSearchRepository;
+import com.example.repository.ReservationSlot;
+import com.example.repository.ReservationSpecifications;
+import com.example.repository.UserRepository;
+import com.example.service.SlotAvailabilityIndex.SlotKey;
+import io.micrometer.core.aop.MeterTag;
+import io.micrometer.core.annotation.Timed;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Servisní třída pro správu rezervací.
  * Zajišťuje veškeré CRUD operace nad entitou Reservation.
+ * Veřejné metody se měří metrikou reservations.service (tagy class, method, exception),
+ * hlavní cesty rezervací mají vlastní timery s histogramem a tagem sportoviště.
  */
 @Service
+@Timed("reservations.service")
 public class ReservationService {
 
-    private final ReservationRepository reservationRepository;
+    private static final String CONFLICT_MESSAGE = "Vybraný termín se překrývá s jinou rezervací.";
+    private static final String STALE_MESSAGE =
+            "Rezervaci mezitím upravil někdo jiný. Zkontrolujte prosím aktuální údaje a uložte úpravu znovu.";
+    private static final String EXCLUSION_VIOLATION = "23P01";  // SQLSTATE PostgreSQL pro exclusion_violation
+    private static final int MAX_GRID_DAYS = 31;
+    private static final int MAX_GRID_FACILITIES = 50;
+    private static final int PAGE_SIZE = 50;
+
+    private static final int MAX_SERIES_OCCURRENCES = 60;
 
     /**
-     * Konstruktor pro injektování repozitáře rezervací.
+     * Perioda opakované rezervace.
      */
-    public ReservationService(ReservationRepository reservationRepository) {
-        this.reservationRepository = reservationRepository;
+    public enum Recurrence {
+        WEEKLY(1),
+        BIWEEKLY(2);
+
+        private final int weeks;
+
+        Recurrence(int weeks) {
+            this.weeks = weeks;
+        }
+
+        public int getWeeks() {
+            return weeks;
+        }
+
+        /**
+         * Perioda podle hodnoty z formuláře (WEEKLY, BIWEEKLY, bez ohledu na velikost písmen).
+         * @throws IllegalArgumentException Se zprávou pro uživatele, pokud hodnota není známá perioda.
+         */
+        public static Recurrence fromParameter(String value) {
+            for (Recurrence recurrence : values()) {
+                if (recurrence.name().equalsIgnoreCase(value.strip())) {
+                    return recurrence;
+                }
+            }
+            throw new IllegalArgumentException("Neznámé opakování rezervace, zvolte \"Každý týden\" nebo \"Každý druhý týden\".");
+        }
     }
 
+    private final ReservationRepository reservationRepository;
+    private final FacilityRepository facilityRepository;
+    private final UserRepository userRepository;
+    private final FacilityService facilityService;
+    private final SlotAvailabilityIndex slotIndex;
+    private final ReservationLocks reservationLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
-     * Získání všech rezervací pro konkrétního uživatele.
-     * @param user Uživatel, jehož rezervace se načítají.
-     * @return Seznam rezervací daného uživatele.
+     * Konstruktor pro injektování repozitářů, služby sportovišť, indexu obsazenosti slotů, zámků pro zápis
+     * a vydavatele událostí o změnách obsazenosti (SlotsChangedEvent).
      */
-    public List<Reservation> getUserReservations(User user) {
-        return reservationRepository.findByUserId(user.getId());
+    public ReservationService(ReservationRepository reservationRepository, FacilityRepository facilityRepository,
+                              UserRepository userRepository, FacilityService facilityService, SlotAvailabilityIndex slotIndex,
+                              ReservationLocks reservationLocks, TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher) {
+        this.reservationRepository = reservationRepository;
+        this.facilityRepository = facilityRepository;
+        this.userRepository = userRepository;
+        this.facilityService = facilityService;
+        this.slotIndex = slotIndex;
+        this.reservationLocks = reservationLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Generování dostupných půlhodinových časových slotů od 8:00 do 20:00.
-     * @return Seznam časových slotů ve formátu HH:mm.
+     * Získání všech rezervací pro konkrétního uživatele (pro výpis, jedním dotazem).
+     * @param userId ID uživatele, jehož rezervace se načítají.
+     * @return Seznam rezervací daného uživatele.
      */
-    public List<String> generateHalfHourSlots() {
-        List<String> slots = new ArrayList<>();
-        LocalTime start = LocalTime.of(8, 0);
-        LocalTime end = LocalTime.of(20, 0);
-
-        while (start.isBefore(end)) {
-            slots.add(start.toString());
-            start = start.plusMinutes(30);
-        }
-        return slots;
+    public List<ReservationView> getUserReservations(Long userId) {
+        return reservationRepository.findViewsByUserId(userId);
     }
 
     /**
      * Získání dostupných časových slotů pro daný den a sportoviště.
-     * @param title Název sportoviště.
+     * Odpověď se skládá z paměťového indexu, databáze se dotazuje jen při prvním přístupu k danému dni.
+     * @param facilityId ID sportoviště.
      * @param reservationDate Datum rezervace.
      * @return Seznam dostupných časových slotů.
      */
-    public List<String> getAvailableSlots(String title, LocalDate reservationDate) {
-        List<String> allSlots = generateHalfHourSlots();
+    @Timed(value = "reservations.slots.lookup", histogram = true)
+    public List<String> getAvailableSlots(@MeterTag(key = "facility", resolver = FacilityTagResolver.class) Integer facilityId, LocalDate reservationDate) {
+        return slotIndex.freeSlots(facilityId, reservationDate);
+    }
 
-        // Najdeme existující rezervace na dané datum a sportoviště
-        List<Reservation> existingReservations = reservationRepository.findByReservationDateAndTitle(reservationDate, title);
+    /**
+     * Vrátí ETag dostupnosti pro daný den a sportoviště, odvozený z obsazenosti v indexu (viz SlotAvailabilityIndex.version).
+     * @param facilityId ID sportoviště.
+     * @param reservationDate Datum rezervace.
+     * @return Hodnota ETagu (bez uvozovek).
+     */
+    public String getAvailabilityETag(Integer facilityId, LocalDate reservationDate) {
+        return slotIndex.version(facilityId, reservationDate);
+    }
 
-        // Odstranění obsazených časů
-        for (Reservation reservation : existingReservations) {
-            LocalTime startTime = reservation.getStartTime().toLocalTime();
-            allSlots.remove(startTime.toString());
+    /**
+     * Získání mřížky volných slotů pro více sportovišť a rozsah dní.
+     * Chybějící data se dotahují jedním dotazem přes celý rozsah, takže počet dotazů nezávisí
+     * na počtu sportovišť ani dní.
+     * @param facilityIds ID sportovišť.
+     * @param from První den rozsahu.
+     * @param to Poslední den rozsahu (včetně).
+     * @return Mřížka volných slotů.
+     * @throws IllegalArgumentException Při neplatném rozsahu nebo neznámém sportovišti.
+     */
+    public AvailabilityGrid getAvailabilityGrid(Collection<Integer> facilityIds, LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_GRID_DAYS) {
+            throw new IllegalArgumentException("Rozsah dní musí být mezi 1 a " + MAX_GRID_DAYS + ".");
+        }
+        if (facilityIds.isEmpty() || facilityIds.size() > MAX_GRID_FACILITIES) {
+            throw new IllegalArgumentException("Počet sportovišť musí být mezi 1 a " + MAX_GRID_FACILITIES + ".");
         }
 
-        return allSlots;
+        List<Facility> facilities = facilityIds.stream().map(facilityService::getFacility).toList();
+
+        Map<SlotKey, Long> occupied = slotIndex.occupiedSlots(facilityIds, from, to);
+        List<FacilityAvailability> result = new ArrayList<>(facilities.size());
+        for (Facility facility : facilities) {
+            OpeningHoursCalendar calendar = facilityService.getCalendar(facility.getId());
+            Map<LocalDate, DayAvailability> days = new LinkedHashMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                SlotGrid grid = calendar.gridFor(date);
+                long mask = occupied.get(new SlotKey(facility.getId(), date));
+                days.put(date, new DayAvailability(grid.start().toString(), grid.slotMinutes(), grid.freeString(mask)));
+            }
+            result.add(new FacilityAvailability(facility.getId(), facility.getName(), days));
+        }
+        return new AvailabilityGrid(result);
     }
 
     /**
      * Uložení nové rezervace.
-     * @param title Název sportoviště.
+     * Kontrola překryvu a zápis probíhají v jedné transakci pod zámkem pro dané sportoviště a den,
+     * takže dva souběžné požadavky na stejný termín nemohou oba uspět.
+     * @param facilityId ID sportoviště.
      * @param startTime Datum a čas začátku rezervace.
      * @param endTime Datum a čas konce rezervace.
      * @param note Poznámka (volitelná).
-     * @param user Uživatel, který rezervaci vytváří.
+     * @param userId ID uživatele, který rezervaci vytváří.
+     * @throws ReservationConflictException Pokud se termín překrývá s existující rezervací.
+     * @throws IllegalArgumentException Pokud sportoviště neexistuje nebo termín není v jeho provozní době.
      */
-    public void saveReservation(String title, LocalDateTime startTime, LocalDateTime endTime, String note, User user) {
+    @Timed(value = "reservations.save", histogram = true)
+    public void saveReservation(@MeterTag(key = "facility", resolver = FacilityTagResolver.class) Integer facilityId, LocalDateTime startTime, LocalDateTime endTime, String note, Long userId) {
+        checkOpeningHours(facilityId, startTime, endTime);
+
         Reservation reservation = new Reservation();
-        reservation.setTitle(title);
         reservation.setStartTime(startTime);
         reservation.setEndTime(endTime);
         reservation.setNote(note);
-        reservation.setUser(user);
 
-        reservationRepository.save(reservation);
+        Reservation saved = inBookingTransaction(facilityId, List.of(startTime.toLocalDate()), () -> {
+            if (reservationRepository.existsByFacilityIdAndReservationDateAndStartTimeLessThanAndEndTimeGreaterThan(
+                    facilityId, startTime.toLocalDate(), endTime, startTime)) {
+                throw new ReservationConflictException(CONFLICT_MESSAGE);
+            }
+            reservation.setFacility(facilityRepository.getReferenceById(facilityId));
+            reservation.setUser(userRepository.getReferenceById(userId));
+            return reservationRepository.saveAndFlush(reservation);
+        });
+        slotIndex.add(saved);
+        eventPublisher.publishEvent(new SlotsChangedEvent(Set.of(keyOf(saved))));
+    }
+
+    /**
+     * Uložení opakované rezervace (série) - stejný čas každý týden nebo každý druhý týden až do zadaného dne.
+     * Kolize všech termínů se zjišťují jedním dotazem a všechny termíny se vloží v jedné transakci
+     * jednou JDBC dávkou (ID se přidělují ze sekvence po blocích, viz Reservation).
+     * Pokud koliduje kterýkoli termín, neuloží se nic.
+     * @param facilityId ID sportoviště.
+     * @param firstDate Den prvního termínu.
+     * @param startTime Čas začátku.
+     * @param endTime Čas konce.
+     * @param recurrence Perioda opakování.
+     * @param until Poslední den, kdy může termín proběhnout (včetně).
+     * @param note Poznámka (volitelná).
+     * @param userId ID uživatele, který rezervaci vytváří.
+     * @return Uložené rezervace série.
+     * @throws ReservationConflictException Pokud se některý termín překrývá s existující rezervací.
+     * @throws IllegalArgumentException Pokud sportoviště neexistuje nebo některý termín není v jeho provozní době.
+     */
+    @Timed(value = "reservations.save.series", histogram = true)
+    public List<Reservation> saveReservationSeries(@MeterTag(key = "facility", resolver = FacilityTagResolver.class) Integer facilityId, LocalDate firstDate, LocalTime startTime, LocalTime endTime,
+                                                   Recurrence recurrence, LocalDate until, String note, Long userId) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = firstDate; !date.isAfter(until); date = date.plusWeeks(recurrence.getWeeks())) {
+            dates.add(date);
+        }
+        if (dates.isEmpty() || dates.size() > MAX_SERIES_OCCURRENCES) {
+            throw new IllegalArgumentException("Opakovaná rezervace musí mít 1 až " + MAX_SERIES_OCCURRENCES + " termínů.");
+        }
+        List<LocalDate> outsideHours = dates.stream()
+                .filter(date -> !facilityService.getSlotGrid(facilityId, date).contains(date.atTime(startTime), date.atTime(endTime)))
+                .toList();
+        if (!outsideHours.isEmpty()) {
+            throw new IllegalArgumentException("Některé termíny nejsou v provozní době sportoviště: " + outsideHours);
+        }
+
+        List<Reservation> series = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            Reservation reservation = new Reservation();
+            reservation.setStartTime(date.atTime(startTime));
+            reservation.setEndTime(date.atTime(endTime));
+            reservation.setNote(note);
+            series.add(reservation);
+        }
+
+        List<Reservation> saved = inBookingTransaction(facilityId, dates, () -> {
+            List<LocalDate> conflicts = new ArrayList<>();
+            List<Reservation> existing = reservationRepository.findByFacilityIdAndReservationDateIn(facilityId, dates);
+            for (Reservation occurrence : series) {
+                for (Reservation other : existing) {
+                    if (other.getStartTime().isBefore(occurrence.getEndTime())
+                            && other.getEndTime().isAfter(occurrence.getStartTime())) {
+                        conflicts.add(occurrence.getStartTime().toLocalDate());
+                        break;
+                    }
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                throw new ReservationConflictException("Některé termíny se překrývají s jinými rezervacemi: " + conflicts);
+            }
+            Facility facility = facilityRepository.getReferenceById(facilityId);
+            User user = userRepository.getReferenceById(userId);
+            series.forEach(occurrence -> {
+                occurrence.setFacility(facility);
+                occurrence.setUser(user);
+            });
+            return reservationRepository.saveAllAndFlush(series);
+        });
+        saved.forEach(slotIndex::add);
+        eventPublisher.publishEvent(new SlotsChangedEvent(saved.stream().map(ReservationService::keyOf).collect(Collectors.toSet())));
+        return saved;
     }
 
     /**
@@ -99,7 +299,11 @@ public class ReservationService {
      * @param id ID rezervace k odstranění.
      */
     public void deleteReservation(Long id) {
-        reservationRepository.deleteById(id);
+        reservationRepository.findById(id).ifPresent(reservation -> {
+            reservationRepository.delete(reservation);
+            slotIndex.evict(reservation);
+            eventPublisher.publishEvent(new SlotsChangedEvent(Set.of(keyOf(reservation))));
+        });
     }
 
     /**
@@ -110,12 +314,55 @@ public class ReservationService {
         return reservationRepository.findAll();
     }
 
+    /**
+     * Získání jedné stránky rezervací pro administraci metodou keyset (seek) stránkování.
+     * Místo OFFSET se pokračuje za poslední zobrazenou rezervací podle řazení
+     * (reservationDate, startTime, id), takže cena dotazu nezávisí na velikosti tabulky ani čísle stránky.
+     * Stránka se načítá jedním dotazem přímo do ReservationView, bez entit uživatelů a jejich rolí.
+     * @param filter Filtr sportoviště, rozsahu dní a uživatele.
+     * @param after Kurzor poslední rezervace předchozí stránky, nebo null pro první stránku.
+     * @return Okno s nejvýše PAGE_SIZE rezervacemi a informací, zda existuje další stránka.
+     */
+    public Window<ReservationView> getReservationPage(ReservationFilter filter, ReservationCursor after) {
+        Specification<Reservation> spec = Specification.allOf(
+                ReservationSpecifications.hasFacility(filter.facilityId()),
+                ReservationSpecifications.fromDate(filter.from()),
+                ReservationSpecifications.toDate(filter.to()),
+                ReservationSpecifications.ofUser(filter.userId()));
+
+        return reservationRepository.findViewPage(spec, after, PAGE_SIZE);
+    }
+
+    /**
+     * Fulltextové hledání rezervací podle slov v poznámce (např. název týmu nebo turnaje),
+     * výsledky seřazené podle relevance. Stránkuje se po PAGE_SIZE, podle relevance se řadí jen prvních
+     * ReservationSearchRepository.MAX_CANDIDATES shod (viz tam).
+     * @param text Hledaný text; všechna slova se musí vyskytnout, stačí i jako začátek slova.
+     * @param page Číslo stránky od 0; stránky za hranicí MAX_CANDIDATES jsou prázdné.
+     * @return Okno s nejvýše PAGE_SIZE rezervacemi a informací, zda existuje další stránka.
+     */
+    public Window<ReservationView> searchReservations(String text, int page) {
+        // Omezením stránky nepřeteče výpočet OFFSET ani pro page = Integer.MAX_VALUE
+        int lastPage = ReservationSearchRepository.MAX_CANDIDATES / PAGE_SIZE;
+        int offset = Math.min(Math.max(page, 0), lastPage) * PAGE_SIZE;
+        return reservationRepository.searchNotes(text, offset, PAGE_SIZE);
+    }
+
+    /**
+     * Budoucí rezervace (od dneška) ve dnech uzavření sportoviště. Den uzavření přidaný až po vytvoření
+     * rezervace ji nezruší, administrátor ji musí přesunout nebo smazat.
+     * @return Rezervace seřazené podle data a začátku.
+     */
+    public List<ReservationView> getReservationsOnClosedDays() {
+        return reservationRepository.findViewsOnClosedDays(LocalDate.now());
+    }
+
     /**
      * Získání všech rezervací seřazených podle názvu sportoviště.
-     * @return Seznam rezervací seřazený vzestupně podle názvu.
+     * @return Seznam rezervací seřazený vzestupně podle názvu sportoviště.
      */
-    public List<Reservation> getAllReservationsSortedByTitle() {
-        return reservationRepository.findAll(Sort.by(Sort.Direction.ASC, "title"));
+    public List<Reservation> getAllReservationsSortedByFacility() {
+        return reservationRepository.findAll(Sort.by(Sort.Direction.ASC, "facility.name"));
     }
 
     /**
@@ -129,20 +376,84 @@ public class ReservationService {
 
     /**
      * Aktualizace existující rezervace.
+     * Úprava se zapisuje jediným podmíněným UPDATE (viz ReservationRepository.updateIfVersion), který zároveň
+     * ověří verzi rezervace i překryv nového termínu s ostatními rezervacemi. Pokud se nic neupraví,
+     * zjistí se podle aktuální verze, o který z konfliktů jde.
      * @param id ID rezervace.
-     * @param updatedReservation Objekt s aktualizovanými daty rezervace.
+     * @param version Verze rezervace, ze které vychází formulář úpravy.
+     * @param facilityId ID sportoviště.
+     * @param startTime Nové datum a čas začátku.
+     * @param endTime Nové datum a čas konce.
+     * @param note Poznámka (volitelná).
+     * @throws ReservationVersionConflictException Pokud rezervaci mezitím upravil někdo jiný.
+     * @throws ReservationConflictException Pokud se nový termín překrývá s jinou rezervací.
+     * @throws IllegalArgumentException Pokud sportoviště neexistuje nebo termín není v jeho provozní době.
      */
-    public void updateReservation(Long id, Reservation updatedReservation) {
-        Reservation existingReservation = reservationRepository.findById(id).orElse(null);
+    @Timed(value = "reservations.update", histogram = true)
+    public void updateReservation(Long id, long version, @MeterTag(key = "facility", resolver = FacilityTagResolver.class) Integer facilityId,
+                                  LocalDateTime startTime, LocalDateTime endTime, String note) {
+        checkOpeningHours(facilityId, startTime, endTime);
+
+        LocalDate date = startTime.toLocalDate();
+        Optional<ReservationSlot> original = inBookingTransaction(facilityId, List.of(date), () -> {
+            Optional<ReservationSlot> updated = reservationRepository.updateIfVersion(
+                    id, version, facilityId, date, startTime, endTime, note);
+            if (updated.isEmpty()) {
+                Long currentVersion = reservationRepository.findVersionById(id).orElse(null);
+                if (currentVersion == null) {
+                    return updated;  // Rezervace mezitím zanikla, není co upravit
+                }
+                if (currentVersion != version) {
+                    throw new ReservationVersionConflictException(STALE_MESSAGE);
+                }
+                throw new ReservationConflictException(CONFLICT_MESSAGE);
+            }
+            return updated;
+        });
+
+        original.ifPresent(slot -> {
+            SlotKey originalKey = new SlotKey(slot.getFacilityId(), slot.getReservationDate());
+            SlotKey newKey = new SlotKey(facilityId, date);
+            slotIndex.evict(newKey);
+            slotIndex.evict(originalKey);  // Rezervace mohla změnit den nebo sportoviště
+            eventPublisher.publishEvent(new SlotsChangedEvent(Set.copyOf(List.of(newKey, originalKey))));
+        });
+    }
+
+    private static SlotKey keyOf(Reservation reservation) {
+        return new SlotKey(reservation.getFacility().getId(), reservation.getStartTime().toLocalDate());
+    }
 
-        if (existingReservation != null) {
-            existingReservation.setTitle(updatedReservation.getTitle());
-            existingReservation.setReservationDate(updatedReservation.getReservationDate());
-            existingReservation.setStartTime(updatedReservation.getStartTime());
-            existingReservation.setEndTime(updatedReservation.getEndTime());
-            existingReservation.setNote(updatedReservation.getNote());
+    /**
+     * Ověří, že termín leží celý v provozní době sportoviště v daný den (viz OpeningHoursCalendar).
+     * @throws IllegalArgumentException Pokud sportoviště neexistuje, je v ten den zavřené nebo termín přesahuje provozní dobu.
+     */
+    private void checkOpeningHours(Integer facilityId, LocalDateTime startTime, LocalDateTime endTime) {
+        SlotGrid grid = facilityService.getSlotGrid(facilityId, startTime.toLocalDate());
+        if (grid.slotCount() == 0) {
+            throw new IllegalArgumentException("Sportoviště je v tento den zavřené.");
+        }
+        if (!grid.contains(startTime, endTime)) {
+            throw new IllegalArgumentException("Rezervace musí být v provozní době sportoviště ("
+                    + grid.start() + " - " + grid.end() + ").");
+        }
+    }
 
-            reservationRepository.save(existingReservation);
+    /**
+     * Provede zápis rezervací v transakci pod zámky pro dané sportoviště a dny.
+     * Zámky se uvolní až po commitu, takže další zápis na stejný den už vidí výsledek předchozího.
+     * Porušení vylučovacího omezení v databázi (souběh více instancí aplikace) se převádí
+     * na ReservationConflictException.
+     */
+    private <T> T inBookingTransaction(Integer facilityId, Collection<LocalDate> dates, Supplier<T> action) {
+        try {
+            return reservationLocks.withLocks(facilityId, dates, () -> transactionTemplate.execute(status -> action.get()));
+        } catch (DataIntegrityViolationException e) {
+            if (NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                throw new ReservationConflictException(CONFLICT_MESSAGE, e);
+            }
+            throw e;
         }
     }
 }
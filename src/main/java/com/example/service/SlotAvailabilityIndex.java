@@ -0,0 +1,204 @@
+package com.example.service;
+
+import com.example.entity.Reservation;
+import com.example.repository.ReservationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paměťový index obsazenosti časových slotů.
+ * Pro každou dvojici (sportoviště, den) drží bitovou mapu, kde bit i znamená obsazený slot i
+ * podle rozložení slotů sportoviště v daný den (viz SlotGrid a OpeningHoursCalendar). Mapa se načítá líně z databáze při prvním dotazu
+ * a dále ji udržují zápisové operace v ReservationService.
+ * Index je omezená cache (app.slot-index.max-size) s krátkou expirací od načtení (app.slot-index.ttl):
+ * klíče pochází z parametrů požadavků, takže nesmí růst bez omezení, a zápisy provedené jinou instancí
+ * aplikace se projeví nejpozději po uplynutí expirace.
+ */
+@Component
+public class SlotAvailabilityIndex {
+
+    private final ReservationRepository reservationRepository;
+    private final FacilityService facilityService;
+    private final Cache<SlotKey, Long> occupied;
+    private final AtomicLong writes = new AtomicLong();  // Počet zápisů, hlídá načítání před uložením zastaralých dat
+    private final Counter singleLoads;
+    private final Counter bulkLoads;
+
+    public SlotAvailabilityIndex(ReservationRepository reservationRepository, FacilityService facilityService,
+                                 MeterRegistry registry,
+                                 @Value("${app.slot-index.max-size:100000}") long maxSize,
+                                 @Value("${app.slot-index.ttl:10s}") Duration ttl) {
+        this.reservationRepository = reservationRepository;
+        this.facilityService = facilityService;
+        this.occupied = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        Gauge.builder("slot.index.size", occupied, Cache::estimatedSize)
+                .description("Počet načtených dvojic (sportoviště, den) v indexu obsazenosti")
+                .register(registry);
+        this.singleLoads = Counter.builder("slot.index.loads")
+                .description("Načtení obsazenosti z databáze (mimo index)")
+                .tag("mode", "single")
+                .register(registry);
+        this.bulkLoads = Counter.builder("slot.index.loads")
+                .description("Načtení obsazenosti z databáze (mimo index)")
+                .tag("mode", "bulk")
+                .register(registry);
+    }
+
+    /**
+     * Klíč indexu - sportoviště a den.
+     */
+    public record SlotKey(Integer facilityId, LocalDate date) {
+    }
+
+    /**
+     * Vrátí bitovou mapu obsazených slotů. Při prvním dotazu na daný klíč (nebo po expiraci) ji načte z databáze.
+     * Dotaz běží mimo zámek cache; výsledek se uloží jen tehdy, pokud mezitím neproběhl žádný zápis,
+     * jinak by mohl přepsat novější stav. Odpověď odpovídá databázi v okamžiku dotazu v obou případech.
+     * @param facilityId ID sportoviště.
+     * @param date Datum.
+     * @return Bitová mapa obsazených slotů.
+     */
+    public long occupiedSlots(Integer facilityId, LocalDate date) {
+        SlotKey key = new SlotKey(facilityId, date);
+        Long mask = occupied.getIfPresent(key);
+        if (mask != null) {
+            return mask;
+        }
+
+        long writesBefore = writes.get();
+        long loaded = load(key);
+        Long cached = occupied.asMap().computeIfAbsent(key, k -> writes.get() == writesBefore ? loaded : null);
+        return cached != null ? cached : loaded;
+    }
+
+    /**
+     * Vrátí bitové mapy obsazenosti pro všechny kombinace sportovišť a dnů v rozsahu.
+     * Chybějící klíče se načtou jedním dotazem přes celý rozsah a uloží do indexu, pokud mezitím
+     * neproběhl žádný zápis (jinak by se mohl uložit zastaralý stav - odpověď je ale i tak konzistentní
+     * se stavem databáze v okamžiku dotazu).
+     * @param facilityIds ID sportovišť.
+     * @param from První den rozsahu.
+     * @param to Poslední den rozsahu (včetně).
+     * @return Bitové mapy obsazenosti podle klíče.
+     */
+    public Map<SlotKey, Long> occupiedSlots(Collection<Integer> facilityIds, LocalDate from, LocalDate to) {
+        Map<SlotKey, Long> result = new HashMap<>();
+        Map<SlotKey, Long> missing = new HashMap<>();
+        for (Integer facilityId : facilityIds) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                SlotKey key = new SlotKey(facilityId, date);
+                Long mask = occupied.getIfPresent(key);
+                if (mask != null) {
+                    result.put(key, mask);
+                } else {
+                    missing.put(key, 0L);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;  // Vše z paměti, bez dotazu do databáze
+        }
+
+        bulkLoads.increment();
+        long writesBefore = writes.get();
+        for (Reservation reservation : reservationRepository.findByReservationDateBetweenAndFacilityIdIn(from, to, facilityIds)) {
+            missing.computeIfPresent(keyOf(reservation), (key, mask) -> mask | maskOf(reservation));
+        }
+        missing.forEach((key, loaded) -> {
+            Long mask = occupied.asMap().computeIfAbsent(key, k -> writes.get() == writesBefore ? loaded : null);
+            result.put(key, mask != null ? mask : loaded);
+        });
+        return result;
+    }
+
+    /**
+     * Vrátí volné sloty ve formátu HH:mm pro dané sportoviště a den.
+     */
+    public List<String> freeSlots(Integer facilityId, LocalDate date) {
+        return facilityService.getSlotGrid(facilityId, date).freeSlots(occupiedSlots(facilityId, date));
+    }
+
+    /**
+     * Zapíše novou rezervaci do indexu. Pokud klíč ještě není načten, nic se neděje -
+     * rezervace je už v databázi a načte se s ním.
+     */
+    public void add(Reservation reservation) {
+        SlotKey key = keyOf(reservation);
+        writes.incrementAndGet();
+        occupied.asMap().computeIfPresent(key, (k, mask) -> mask | maskOf(reservation));
+    }
+
+    /**
+     * Odstraní klíč rezervace z indexu, při příštím dotazu se načte znovu z databáze.
+     * Bity se nenulují přímo, protože starší data mohou obsahovat překrývající se rezervace.
+     */
+    public void evict(Reservation reservation) {
+        evict(keyOf(reservation));
+    }
+
+    /**
+     * Odstraní z indexu daný den a sportoviště.
+     */
+    public void evict(SlotKey key) {
+        writes.incrementAndGet();
+        occupied.invalidate(key);
+    }
+
+    /**
+     * Vrátí verzi obsazenosti daného sportoviště a dne, základ pro ETag.
+     * Verze je odvozená z obsahu odpovědi (rozložení slotů a bitová mapa obsazenosti), ne z čítače v paměti:
+     * stejná data mají na všech instancích stejnou verzi a zápis jiné instance ji změní nejpozději
+     * po expiraci záznamu v indexu.
+     * @param facilityId ID sportoviště.
+     * @param date Datum.
+     * @return Řetězec verze.
+     */
+    public String version(Integer facilityId, LocalDate date) {
+        return version(facilityService.getSlotGrid(facilityId, date), occupiedSlots(facilityId, date));
+    }
+
+    /**
+     * Verze pro již zjištěné rozložení slotů a obsazenost, např. pro zprávu se stejnými daty.
+     */
+    public static String version(SlotGrid grid, long occupied) {
+        return grid.start().toSecondOfDay() / 60 + "-" + grid.slotMinutes() + "-" + grid.slotCount()
+                + "-" + Long.toHexString(occupied);
+    }
+
+    private long load(SlotKey key) {
+        singleLoads.increment();
+        long mask = 0L;
+        for (Reservation reservation : reservationRepository.findByReservationDateAndFacilityId(key.date(), key.facilityId())) {
+            mask |= maskOf(reservation);
+        }
+        return mask;
+    }
+
+    /**
+     * ID sportoviště se čte z proxy bez jejího načtení, klíč tedy nevyžaduje dotaz do databáze.
+     */
+    private static SlotKey keyOf(Reservation reservation) {
+        return new SlotKey(reservation.getFacility().getId(), reservation.getStartTime().toLocalDate());
+    }
+
+    /**
+     * Spočítá bitovou mapu všech slotů, do kterých rezervace zasahuje (tj. [začátek, konec)).
+     */
+    private long maskOf(Reservation reservation) {
+        return facilityService.getSlotGrid(reservation.getFacility().getId(), reservation.getStartTime().toLocalDate())
+                .maskOf(reservation.getStartTime(), reservation.getEndTime());
+    }
+}
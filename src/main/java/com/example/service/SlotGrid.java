@@ -0,0 +1,175 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Rozložení rezervačních slotů během dne: začátek prvního slotu, délka slotu a jejich počet.
+ * Slot i začíná v čase start + i * slotMinutes. Obsazenost dne se ukládá jako bitová mapa v jednom longu,
+ * proto může mít den nejvýše 64 slotů.
+ * Instance je neměnná a při vytvoření si předpočítá popisky slotů (HH:mm) i řádek zcela volného dne,
+ * dotazy na dostupnost tak šablonu dne nikdy znovu nesestavují. Stejná rozložení sdílí všechna sportoviště
+ * a dny se stejnou provozní dobou (viz FacilityService).
+ */
+public final class SlotGrid {
+
+    public static final int MAX_SLOTS = Long.SIZE;
+
+    /**
+     * Zavřený den - žádné sloty.
+     */
+    public static final SlotGrid CLOSED = new SlotGrid(LocalTime.MIDNIGHT, 60, 0);
+
+    private final LocalTime start;
+    private final int slotMinutes;
+    private final int slotCount;
+    private final long allSlots;  // Bitová mapa všech slotů dne
+    private final List<String> labels;  // Začátky slotů ve formátu HH:mm, neměnný seznam
+    private final String allFree;  // freeString(0)
+
+    public SlotGrid(LocalTime start, int slotMinutes, int slotCount) {
+        if (slotMinutes <= 0 || slotCount < 0 || slotCount > MAX_SLOTS) {
+            throw new IllegalArgumentException("Neplatné rozložení slotů: " + slotCount + " x " + slotMinutes + " min");
+        }
+        this.start = start;
+        this.slotMinutes = slotMinutes;
+        this.slotCount = slotCount;
+        this.allSlots = slotCount == 0 ? 0L : -1L >>> (Long.SIZE - slotCount);
+
+        List<String> slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(slotStart(i).toString());
+        }
+        this.labels = List.copyOf(slots);
+        this.allFree = "1".repeat(slotCount);
+    }
+
+    /**
+     * Rozložení slotů podle provozní doby a délky slotu.
+     * Poslední slot musí celý skončit nejpozději v čase uzavření.
+     * @throws IllegalArgumentException Pokud délka slotu není kladná nebo by den měl víc než MAX_SLOTS slotů.
+     */
+    public static SlotGrid of(LocalTime openingTime, LocalTime closingTime, int slotMinutes) {
+        if (slotMinutes <= 0) {
+            throw new IllegalArgumentException("Neplatná délka slotu: " + slotMinutes + " min");
+        }
+        long minutes = Duration.between(openingTime, closingTime).toMinutes();
+        return new SlotGrid(openingTime, slotMinutes, (int) Math.max(0, minutes / slotMinutes));
+    }
+
+    public LocalTime start() {
+        return start;
+    }
+
+    public int slotMinutes() {
+        return slotMinutes;
+    }
+
+    public int slotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Vrátí konec posledního slotu dne.
+     */
+    public LocalTime end() {
+        return slotStart(slotCount);
+    }
+
+    /**
+     * Zjistí, zda interval [startTime, endTime) leží celý v provozní době tohoto dne.
+     */
+    public boolean contains(LocalDateTime startTime, LocalDateTime endTime) {
+        if (slotCount == 0 || !startTime.toLocalDate().equals(endTime.toLocalDate())) {
+            return false;
+        }
+        return !startTime.toLocalTime().isBefore(start) && !endTime.toLocalTime().isAfter(end());
+    }
+
+    /**
+     * Spočítá bitovou mapu všech slotů, do kterých zasahuje interval [startTime, endTime).
+     */
+    public long maskOf(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime dayStart = startTime.toLocalDate().atTime(start);
+        long from = Duration.between(dayStart, startTime).toMinutes();
+        long to = Duration.between(dayStart, endTime).toMinutes();
+
+        int first = (int) Math.max(0, Math.floorDiv(from, slotMinutes));
+        int last = (int) Math.min(slotCount, Math.floorDiv(to + slotMinutes - 1, slotMinutes));  // exkluzivně
+        if (first >= last) {
+            return 0L;
+        }
+        return (-1L >>> (Long.SIZE - (last - first))) << first;
+    }
+
+    /**
+     * Vrátí začátek slotu s daným indexem.
+     */
+    public LocalTime slotStart(int index) {
+        return start.plusMinutes((long) index * slotMinutes);
+    }
+
+    /**
+     * Vrátí začátky volných slotů ve formátu HH:mm.
+     * Pro zcela volný den vrací sdílený neměnný seznam všech slotů, jinak nový seznam z předpočítaných popisků.
+     * @param occupied Bitová mapa obsazených slotů.
+     */
+    public List<String> freeSlots(long occupied) {
+        long busy = occupied & allSlots;
+        return busy == 0 ? labels : slotLabels(~busy);
+    }
+
+    /**
+     * Vrátí začátky slotů, jejichž bity jsou v bitové mapě nastavené, ve formátu HH:mm.
+     * @param mask Bitová mapa slotů.
+     */
+    public List<String> slotLabels(long mask) {
+        long slots = mask & allSlots;
+        if (slots == 0) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(Long.bitCount(slots));
+        for (int i = 0; i < slotCount; i++) {
+            if ((slots & (1L << i)) != 0) {
+                result.add(labels.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Vrátí řetězec délky slotCount, kde '1' znamená volný a '0' obsazený slot.
+     * @param occupied Bitová mapa obsazených slotů.
+     */
+    public String freeString(long occupied) {
+        long busy = occupied & allSlots;
+        if (busy == 0) {
+            return allFree;
+        }
+        char[] row = new char[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            row[i] = (busy & (1L << i)) == 0 ? '1' : '0';
+        }
+        return new String(row);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SlotGrid other
+                && start.equals(other.start) && slotMinutes == other.slotMinutes && slotCount == other.slotCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, slotMinutes, slotCount);
+    }
+
+    @Override
+    public String toString() {
+        return "SlotGrid[" + start + " + " + slotCount + " x " + slotMinutes + " min]";
+    }
+}
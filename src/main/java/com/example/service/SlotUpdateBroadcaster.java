@@ -0,0 +1,283 @@
+package com.example.service;
+
+import com.example.dto.SlotDelta;
+import com.example.exception.SubscriptionLimitException;
+import com.example.service.SlotAvailabilityIndex.SlotKey;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rozesílá změny volných slotů otevřeným stránkám rezervací přes Server-Sent Events.
+ * Klient odebírá kanál (sportoviště, den). Spojení drží servlet v asynchronním režimu, nečinné
+ * spojení tedy nezabírá žádné vlákno. Po zápisu rezervací (SlotsChangedEvent) se změna spočítá
+ * jednou pro kanál a rozešle všem jeho odběratelům na vyhrazeném executoru - zápis rezervace na rozesílání
+ * nečeká. Více změn stejného kanálu, které přijdou před rozesláním, se sloučí do jedné zprávy.
+ * Pravidelný heartbeat (komentář SSE) udržuje spojení přes proxy a odhalí zavřená spojení.
+ * <p>
+ * Zprávy se pod zámkem kanálu jen řadí do omezené fronty odběratele, samotný (blokující) zápis do spojení
+ * probíhá mimo zámek a pro každého odběratele nejvýš v jednom vlákně najednou. Pomalý klient tak zdrží
+ * nejvýš jedno vlákno rozesílání; když mu fronta přeteče, odběr se zruší a klient se připojí znovu
+ * (EventSource se obnovuje sám) s aktuálním stavem.
+ */
+@Component
+public class SlotUpdateBroadcaster implements DisposableBean {
+
+    private static final String EVENT_NAME = "slots";
+
+    private final SlotAvailabilityIndex slotIndex;
+    private final FacilityService facilityService;
+    private final Duration timeout;
+    private final int maxConnections;
+    private final int maxPending;
+    private final ConcurrentMap<SlotKey, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<SlotKey> pending = ConcurrentHashMap.newKeySet();  // Kanály čekající na rozeslání
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService fanOut;
+    private final ScheduledExecutorService heartbeat;
+
+    /**
+     * Odběratelé jednoho kanálu a naposledy rozeslaná obsazenost (základ pro výpočet změny).
+     */
+    private static final class Channel {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final AtomicLong reads = new AtomicLong();  // Pořadí čtení obsazenosti pro rozeslání
+        long appliedRead;  // Čtení, jehož výsledek je v lastOccupied (pod zámkem kanálu)
+        long lastOccupied;
+
+        Channel(long occupied) {
+            this.lastOccupied = occupied;
+        }
+    }
+
+    /**
+     * Jedno spojení: fronta neodeslaných zpráv a příznak, zda ji právě některé vlákno odesílá.
+     */
+    private static final class Subscriber {
+        final SlotKey key;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SlotKey key, SseEmitter emitter, int maxPending) {
+            this.key = key;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(maxPending);
+        }
+    }
+
+    public SlotUpdateBroadcaster(SlotAvailabilityIndex slotIndex, FacilityService facilityService, MeterRegistry registry,
+                                 @Value("${app.sse.timeout:30m}") Duration timeout,
+                                 @Value("${app.sse.heartbeat:20s}") Duration heartbeatInterval,
+                                 @Value("${app.sse.max-connections:10000}") int maxConnections,
+                                 @Value("${app.sse.max-pending:16}") int maxPending,
+                                 @Value("${app.sse.fan-out-threads:8}") int fanOutThreads) {
+        this.slotIndex = slotIndex;
+        this.facilityService = facilityService;
+        this.timeout = timeout;
+        this.maxConnections = maxConnections;
+        this.maxPending = maxPending;
+        this.fanOut = Executors.newFixedThreadPool(fanOutThreads, new CustomizableThreadFactory("sse-fan-out-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-heartbeat-"));
+        this.heartbeat.scheduleWithFixedDelay(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("sse.connections", connections, AtomicInteger::get)
+                .description("Otevřená spojení odběru změn volných slotů")
+                .register(registry);
+    }
+
+    /**
+     * Přihlásí odběr změn volných slotů daného sportoviště a dne.
+     * Jako první zprávu dostane klient aktuální stav (všechny volné sloty), dál jen změny.
+     * @param facilityId ID sportoviště.
+     * @param date Datum.
+     * @return Emitter, který kontroler vrátí jako odpověď.
+     * @throws IllegalArgumentException Pokud sportoviště neexistuje.
+     * @throws SubscriptionLimitException Pokud je otevřeno příliš mnoho spojení.
+     */
+    public SseEmitter subscribe(Integer facilityId, LocalDate date) {
+        SlotGrid grid = facilityService.getSlotGrid(facilityId, date);
+        // Může jít do databáze; počítadlo spojení se zvýší až potom, výjimka ho tak nerozhodí
+        long occupied = slotIndex.occupiedSlots(facilityId, date);
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new SubscriptionLimitException("Příliš mnoho otevřených spojení, zkuste to prosím později.");
+        }
+
+        SlotKey key = new SlotKey(facilityId, date);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(key, emitter, maxPending);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        Channel channel = channels.compute(key, (k, existing) -> {
+            Channel current = existing != null ? existing : new Channel(occupied);
+            current.subscribers.add(subscriber);
+            return current;
+        });
+        // Úvodní stav se řadí pod zámkem kanálu, aby ho nepředběhla souběžně rozesílaná změna. Je to stav,
+        // ze kterého vychází další změny kanálu (u nového kanálu právě načtený)
+        synchronized (channel) {
+            long current = channel.lastOccupied;
+            enqueue(subscriber, event(new SlotDelta(facilityId, date, SlotAvailabilityIndex.version(grid, current),
+                    grid.freeSlots(current), List.of(), List.of())));
+        }
+        return emitter;
+    }
+
+    /**
+     * Po zápisu rezervací naplánuje rozeslání změn dotčených kanálů. Volá se až po commitu transakce
+     * (případně hned, pokud transakce neběží), takže odběratelé nikdy nedostanou neuložený stav.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsChanged(SlotsChangedEvent event) {
+        for (SlotKey key : event.keys()) {
+            if (channels.containsKey(key) && pending.add(key)) {
+                fanOut.execute(() -> broadcast(key));
+            }
+        }
+    }
+
+    private void broadcast(SlotKey key) {
+        pending.remove(key);  // Změna, která přijde během rozesílání, naplánuje další rozeslání
+        Channel channel = channels.get(key);
+        if (channel == null) {
+            return;
+        }
+        // Obsazenost se čte mimo zámek (při výpadku z indexu jde do databáze), pod zámkem se jen porovná
+        // a zařadí. Souběžná rozeslání téhož kanálu se řadí podle pořadí čtení, starší čtení se zahodí.
+        long read = channel.reads.incrementAndGet();
+        long occupied = slotIndex.occupiedSlots(key.facilityId(), key.date());
+        SlotGrid grid = facilityService.getSlotGrid(key.facilityId(), key.date());
+        synchronized (channel) {  // Zprávy jednoho kanálu se řadí v pořadí změn
+            long previous = channel.lastOccupied;
+            if (read < channel.appliedRead || occupied == previous) {
+                return;
+            }
+            channel.appliedRead = read;
+            channel.lastOccupied = occupied;
+
+            SlotDelta delta = new SlotDelta(key.facilityId(), key.date(), SlotAvailabilityIndex.version(grid, occupied),
+                    grid.freeSlots(occupied),
+                    grid.slotLabels(occupied & ~previous), grid.slotLabels(previous & ~occupied));
+            for (Subscriber subscriber : channel.subscribers) {
+                enqueue(subscriber, event(delta));
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(SlotDelta delta) {
+        return SseEmitter.event().name(EVENT_NAME).id(delta.version()).data(delta, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Zařadí zprávu odběrateli a případně naplánuje odeslání. Neblokuje; odběratele, který nestíhá
+     * přijímat (plná fronta), odpojí.
+     */
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            drop(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                fanOut.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);  // Aplikace se ukončuje
+            }
+        }
+    }
+
+    /**
+     * Odešle frontu odběratele. Pro jednoho odběratele běží nejvýš jednou najednou, zprávy tedy
+     * odcházejí v pořadí zařazení.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(subscriber);  // Klient spojení zavřel, o dokončení se postará kontejner
+                }
+            }
+            subscriber.draining.set(false);
+            // Zpráva zařazená mezi posledním poll a uvolněním příznaku by jinak zůstala ve frontě
+        } while (!subscriber.closed && !subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+
+        if (subscriber.closed && subscriber.draining.compareAndSet(false, true)) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();  // Odpojený pomalý klient; dokončuje vlákno, které do spojení zapisovalo
+        }
+    }
+
+    private void sendHeartbeats() {
+        channels.values().forEach(channel ->
+                channel.subscribers.forEach(subscriber -> enqueue(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /**
+     * Odpojí odběratele, který nestíhá přijímat. Spojení uzavře vlákno, které do něj právě zapisuje,
+     * nebo nové odeslání, pokud žádné neběží.
+     */
+    private void drop(Subscriber subscriber) {
+        unsubscribe(subscriber);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                fanOut.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        channels.computeIfPresent(subscriber.key, (k, channel) -> {
+            if (channel.subscribers.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    /**
+     * Při ukončení aplikace zastaví rozesílání a uzavře otevřená spojení.
+     */
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        fanOut.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+}
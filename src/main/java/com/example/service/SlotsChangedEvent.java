@@ -0,0 +1,12 @@
+package com.example.service;
+
+import com.example.service.SlotAvailabilityIndex.SlotKey;
+
+import java.util.Set;
+
+/**
+ * Událost vydaná po zápisu rezervací (vytvoření, úprava, smazání) se dny a sportovišti,
+ * jejichž obsazenost se mohla změnit. Index obsazenosti je v okamžiku vydání už aktualizovaný.
+ */
+public record SlotsChangedEvent(Set<SlotKey> keys) {
+}
@@ -0,0 +1,84 @@
+package com.example.service;
+
+import com.example.dto.UserIdentity;
+import com.example.entity.User;
+import com.example.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Omezená cache s expirací: přihlašovací jméno (e-mail) -> UserIdentity.
+ * Plní se po úspěšném přihlášení (AuthenticationSuccessEvent, tedy až po ověření hesla), takže kontrolery
+ * zjistí ID a role uživatele bez dotazu do databáze. Neúspěšné pokusy o přihlášení cache neplní. Při změně nebo smazání uživatele ji zneplatňuje UserService,
+ * expirace pak omezuje stáří záznamu i při změnách mimo aplikaci.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> identities;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${app.user-cache.max-size:10000}") long maxSize,
+                             @Value("${app.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Vrátí identitu uživatele, při chybějícím záznamu ji načte z databáze.
+     * @param email E-mail uživatele.
+     * @return Identita uživatele nebo null, pokud uživatel neexistuje (neexistence se neukládá).
+     */
+    public UserIdentity get(String email) {
+        return identities.get(email, this::load);
+    }
+
+    /**
+     * Po úspěšném ověření jména a hesla připraví identitu přihlášeného uživatele.
+     * Spring Security vydává událost ještě před AuthenticationSuccessHandler, ten ji tedy najde v cache.
+     */
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        get(event.getAuthentication().getName());
+    }
+
+    /**
+     * Odstraní záznam uživatele s daným e-mailem.
+     */
+    public void invalidate(String email) {
+        if (email != null) {
+            identities.invalidate(email);
+        }
+    }
+
+    /**
+     * Statistiky cache (zásahy, výpadky, vyřazení).
+     */
+    public CacheStats stats() {
+        return identities.stats();
+    }
+
+    /**
+     * Aktuální (přibližný) počet záznamů.
+     */
+    public long size() {
+        return identities.estimatedSize();
+    }
+
+    private UserIdentity load(String email) {
+        User user = userRepository.findByEmail(email);
+        return user != null ? UserIdentity.of(user) : null;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.service;
+
+import com.example.dto.UserDto;
+import com.example.repository.UserInsertRepository.NewUser;
+import com.example.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Hromadný import členů (např. seznam členů klubu) z CSV se sloupci first_name,last_name,email,password.
+ * Řádky se kontrolují stejnými pravidly jako registrační formulář (UserDto), hesla se hashují paralelně
+ * a uživatelé se vkládají v JDBC dávkách s rolí ROLE_USER. Každá dávka je samostatná transakce a uživatelé
+ * s již existujícím e-mailem se přeskočí (hesla se jim ani nehashují), takže přerušený import lze bezpečně
+ * spustit znovu.
+ */
+@Service
+public class UserImportService {
+
+    public static final String CSV_HEADER = "first_name,last_name,email,password";
+
+    private static final long QUEUE_FULL_RETRY_MILLIS = 20;
+
+    /**
+     * Výsledek importu: počet datových řádků, vložených uživatelů, přeskočených duplicit
+     * (v souboru i v databázi) a neplatných řádků.
+     */
+    public record ImportResult(int rows, int imported, int duplicates, int invalid) {
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor passwordHashingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityCache entityCache;
+    private final Validator validator;
+    private final int batchSize;
+
+    public UserImportService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                             ThreadPoolExecutor passwordHashingExecutor, TransactionTemplate transactionTemplate,
+                             EntityCache entityCache, Validator validator,
+                             @Value("${app.user-import.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCache = entityCache;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Naimportuje uživatele z CSV (UTF-8, první řádek je hlavička CSV_HEADER).
+     * @param in Obsah CSV souboru, metoda ho nezavírá.
+     * @return Souhrn importu.
+     * @throws IllegalArgumentException Pokud soubor nemá očekávanou hlavičku.
+     * @throws IOException Chyba čtení souboru.
+     */
+    @Timed(value = "users.import", histogram = true)
+    public ImportResult importCsv(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !CSV_HEADER.equalsIgnoreCase(header.replace("\uFEFF", "").strip())) {
+            throw new IllegalArgumentException("Soubor musí začínat hlavičkou " + CSV_HEADER + ".");
+        }
+
+        int rows = 0;
+        int invalid = 0;
+        Map<String, UserDto> users = new LinkedHashMap<>();  // Podle e-mailu, první výskyt vyhrává
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rows++;
+            UserDto user = parse(line);
+            if (user == null || !validator.validate(user).isEmpty()) {
+                invalid++;
+                continue;
+            }
+            users.putIfAbsent(user.getEmail(), user);
+        }
+
+        int imported = 0;
+        List<UserDto> unique = new ArrayList<>(users.values());
+        ExecutorService hashing = Executors.newFixedThreadPool(
+                passwordHashingExecutor.getMaximumPoolSize(), new CustomizableThreadFactory("user-import-"));
+        try {
+            for (int from = 0; from < unique.size(); from += batchSize) {
+                List<UserDto> candidates = unique.subList(from, Math.min(from + batchSize, unique.size()));
+                Set<String> existing = userRepository.findExistingEmails(
+                        candidates.stream().map(UserDto::getEmail).toList());
+                List<NewUser> batch = hash(candidates.stream()
+                        .filter(user -> !existing.contains(user.getEmail()))
+                        .toList(), hashing);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                Integer inserted = transactionTemplate.execute(
+                        status -> userRepository.insertAllWithRole(batch, UserService.DEFAULT_ROLE));
+                imported += inserted != null ? inserted : 0;
+            }
+        } finally {
+            hashing.shutdownNow();
+            entityCache.evictUserQueries();
+        }
+        return new ImportResult(rows, imported, rows - invalid - imported, invalid);
+    }
+
+    /**
+     * Zahashuje hesla jedné dávky paralelně. Samotný výpočet běží na passwordHashingExecutor (přes
+     * PasswordEncoder), vlákna importu jen čekají na výsledek. Je jich stejně jako vláken hashování,
+     * takže import má ve frontě executoru nejvýše jeden hash na vlákno a přihlášení ani registrace
+     * kvůli němu neodmítá plná fronta - jen se střídají s importem. Pokud frontu zaplní přihlášení,
+     * import počká na volné místo (viz encode), místo aby skončil chybou s částí dávek už uloženou.
+     */
+    private List<NewUser> hash(List<UserDto> users, ExecutorService hashing) {
+        List<Future<NewUser>> futures = new ArrayList<>(users.size());
+        for (UserDto user : users) {
+            futures.add(hashing.submit(() -> new NewUser(
+                    user.getFirstName() + " " + user.getLastName(),
+                    user.getEmail(),
+                    encode(user.getPassword()))));
+        }
+
+        List<NewUser> result = new ArrayList<>(users.size());
+        try {
+            for (Future<NewUser> future : futures) {
+                result.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import uživatelů byl přerušen.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return result;
+    }
+
+    /**
+     * Zahashuje heslo; když BoundedPasswordEncoder odmítne požadavek kvůli plné frontě, zkusí to po chvíli
+     * znovu. Import tak při přetížení zpomalí, ale neskončí v půlce.
+     */
+    private String encode(String password) throws InterruptedException {
+        while (true) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (AuthenticationServiceException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    throw e;
+                }
+                Thread.sleep(QUEUE_FULL_RETRY_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Rozdělí řádek CSV na čtyři hodnoty; hodnoty mohou být v uvozovkách (uvozovka uvnitř se zdvojuje),
+     * stejně jako v exportu rezervací. Hodnoty víceřádkové se nepodporují.
+     * @return Uživatel z řádku, nebo null, pokud řádek nemá právě čtyři hodnoty.
+     */
+    private static UserDto parse(String line) {
+        List<String> values = new ArrayList<>(4);
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().strip());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().strip());
+
+        if (values.size() != 4) {
+            return null;
+        }
+        return new UserDto(null, values.get(0), values.get(1), values.get(2), values.get(3));
+    }
+}
@@ -1,61 +1,65 @@
 package com.example.service;
 
+import com.example.dto.UserCursor;
 import com.example.dto.UserDto;
-import com.example.entity.Role;
+import com.example.dto.UserIdentity;
+import com.example.dto.UserSummary;
 import com.example.entity.User;
-import com.example.repository.RoleRepository;
+import com.example.exception.EmailAlreadyUsedException;
+import com.example.repository.UserInsertRepository.NewUser;
 import com.example.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Servisní třída pro správu uživatelů.
  * Poskytuje CRUD operace nad entitou User a zajišťuje registraci a správu rolí.
+ * Veřejné metody se měří metrikou users.service.
  */
 @Service
+@Timed("users.service")
 public class UserService {
 
+    public static final String DEFAULT_ROLE = "ROLE_USER";  // Role nově registrovaných uživatelů (migrace V8)
+    private static final int PAGE_SIZE = 50;
+    /** Nejkratší hledaný text; kratší nemá trigram a trigramový index by ho neobsloužil (prošla by se celá tabulka). */
+    public static final int MIN_SEARCH_LENGTH = 3;
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdentityCache userIdentityCache;
+    private final EntityCache entityCache;
 
     /**
-     * Konstruktor pro injektování repozitářů a encoderu hesel.
+     * Konstruktor pro injektování repozitářů, encoderu hesel a cache identit i entit uživatelů.
      */
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       UserIdentityCache userIdentityCache, EntityCache entityCache) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userIdentityCache = userIdentityCache;
+        this.entityCache = entityCache;
     }
 
     /**
-     * Uloží nového uživatele na základě DTO objektu.
-     * Automaticky přiřadí roli "ROLE_USER".
+     * Zaregistruje nového uživatele s rolí "ROLE_USER" jedním příkazem INSERT.
+     * Obsazenost e-mailu se nezjišťuje předem, hlídá ji unikátní omezení v databázi - souběžné registrace
+     * se stejným e-mailem tak skončí EmailAlreadyUsedException místo chyby serveru.
+     * @param userDto Údaje z registračního formuláře.
+     * @throws EmailAlreadyUsedException Pokud účet s tímto e-mailem už existuje.
      */
     public void saveUser(UserDto userDto) {
-        User user = new User();
-        user.setName(userDto.getFirstName() + " " + userDto.getLastName());
-        user.setEmail(userDto.getEmail());
-        user.setPassword(passwordEncoder.encode(userDto.getPassword()));  // Šifrování hesla
+        NewUser user = new NewUser(
+                userDto.getFirstName() + " " + userDto.getLastName(),
+                userDto.getEmail(),
+                passwordEncoder.encode(userDto.getPassword()));  // Šifrování hesla
 
-        Role role = roleRepository.findByName("ROLE_USER");
-        if (role == null) {
-            role = createDefaultRole();
+        if (!userRepository.insertWithRole(user, DEFAULT_ROLE)) {
+            throw new EmailAlreadyUsedException("Účet s tímto e-mailem již existuje");
         }
-        user.setRoles(List.of(role));
-        userRepository.save(user);
-    }
-
-    /**
-     * Vytvoří roli "ROLE_USER", pokud neexistuje.
-     */
-    private Role createDefaultRole() {
-        Role role = new Role();
-        role.setName("ROLE_USER");
-        return roleRepository.save(role);
+        entityCache.evictUserQueries();
     }
 
     /**
@@ -66,6 +70,15 @@ public class UserService {
     public User findUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
+    /**
+     * Vrátí identitu (ID, jméno, role) přihlášeného uživatele, typicky z cache bez dotazu do databáze.
+     * @param email E-mail uživatele (přihlašovací jméno).
+     * @return Identita uživatele nebo null, pokud nebyl nalezen.
+     */
+    public UserIdentity findIdentityByEmail(String email) {
+        return userIdentityCache.get(email);
+    }
+
     /**
      * Vyhledá uživatele podle e-mailu.
      * @param email E-mail uživatele.
@@ -76,14 +89,18 @@ public class UserService {
     }
 
     /**
-     * Vrátí seznam všech uživatelů ve formě DTO objektů.
-     * @return Seznam uživatelů.
+     * Vrátí jednu stránku adresáře uživatelů seřazeného podle jména (keyset stránkování).
+     * @param search Hledaná část jména nebo e-mailu (bez ohledu na velikost písmen, alespoň MIN_SEARCH_LENGTH znaků),
+     *               null nebo prázdný = všichni.
+     * @param after Kurzor posledního uživatele předchozí stránky, nebo null pro první stránku.
+     * @return Okno s nejvýše PAGE_SIZE uživateli.
+     * @throws IllegalArgumentException Pokud je hledaný text kratší než MIN_SEARCH_LENGTH znaků.
      */
-    public List<UserDto> findAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(this::convertEntityToDto)
-                .collect(Collectors.toList());
+    public Window<UserSummary> getUserDirectoryPage(String search, UserCursor after) {
+        if (search != null && !search.isBlank() && search.strip().length() < MIN_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Zadejte alespoň " + MIN_SEARCH_LENGTH + " znaky hledaného textu.");
+        }
+        return userRepository.findSummaryPage(search, after, PAGE_SIZE);
     }
 
     /**
@@ -101,7 +118,11 @@ public class UserService {
      * @param id ID uživatele.
      */
     public void deleteUserById(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            userIdentityCache.invalidate(user.getEmail());
+            entityCache.evictUser(id);
+        });
     }
 
     /**
@@ -113,23 +134,13 @@ public class UserService {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Uživatel s ID " + id + " nebyl nalezen."));
 
+        String originalEmail = existingUser.getEmail();
         existingUser.setName(updatedUser.getName());
         existingUser.setEmail(updatedUser.getEmail());
 
         userRepository.save(existingUser);
-    }
-
-    /**
-     * Převod entity User na DTO objekt UserDto.
-     * @param user Entita uživatele.
-     * @return DTO reprezentace uživatele.
-     */
-    private UserDto convertEntityToDto(User user) {
-        UserDto userDto = new UserDto();
-        String[] nameParts = user.getName().split(" ", 2);  // Rozdělení jména na křestní jméno a příjmení
-        userDto.setFirstName(nameParts[0]);
-        userDto.setLastName(nameParts.length > 1 ? nameParts[1] : "");
-        userDto.setEmail(user.getEmail());
-        return userDto;
+        userIdentityCache.invalidate(originalEmail);
+        userIdentityCache.invalidate(updatedUser.getEmail());
+        entityCache.evictUser(id);
     }
 }
@@ -0,0 +1,8 @@
+-- Fulltextové hledání v poznámkách rezervací (ReservationSearchRepositoryImpl).
+-- Konfigurace 'simple' jen rozdělí text na slova a převede je na malá písmena - PostgreSQL nemá český
+-- slovník, skloňování proto pokrývá hledání podle začátku slova (sokol:* najde i "Sokolové").
+-- Sloupec je generovaný, takže se přepočítá při každém INSERT i UPDATE poznámky bez zásahu aplikace.
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', coalesce(note, ''))) STORED;
+CREATE INDEX IF NOT EXISTS reservations_search_idx ON reservations USING gin (search_vector);
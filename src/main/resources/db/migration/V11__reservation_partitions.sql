@@ -0,0 +1,148 @@
+-- Rezervace rozdělené po měsících podle reservation_date (deklarativní partitioning, RANGE).
+-- Dotazy aplikace se nemění: filtr podle data projde jen dotčené měsíce, ostatní dotazy projdou indexy všech
+-- partitions. Staré měsíce odpojuje a přesouvá do schématu archive ReservationPartitionService.
+--
+-- Omezení nad celou tabulkou musí v PostgreSQL obsahovat sloupec partitioningu:
+--  * primární klíč je (id, reservation_date); jedinečnost id dál zajišťuje sekvence reservation_seq,
+--  * ochrana proti překryvu (dřív reservations_no_overlap) je na každé partition zvlášť. Rezervace nepřesahuje
+--    půlnoc, překrývající se rezervace mají stejné datum, a tedy i stejnou partition.
+-- Rezervace na měsíc bez vlastní partition skončí v reservations_default; create_reservation_partition je
+-- při založení partition přesune.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- Založí partition pro měsíc obsahující zadané datum (reservations_RRRR_MM), pokud ještě neexistuje
+-- ani není archivovaná. Tabulka se připraví zvlášť, naplní řádky z reservations_default a teprve pak připojí;
+-- kontrola rozsahu (CHECK) ušetří při ATTACH procházení tabulky. Vrací true, pokud partition vznikla.
+CREATE OR REPLACE FUNCTION create_reservation_partition(for_date DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql
+    SET lock_timeout = '5s'
+AS $$
+DECLARE
+    first_day   DATE := date_trunc('month', for_date)::date;
+    next_month  DATE := (date_trunc('month', for_date) + INTERVAL '1 month')::date;
+    part_name   TEXT := 'reservations_' || to_char(for_date, 'YYYY_MM');
+    column_list TEXT;
+BEGIN
+    IF to_regclass(format('public.%I', part_name)) IS NOT NULL
+            OR to_regclass(format('archive.%I', part_name)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Do reservations_default se mezitím nesmí zapsat řádek patřící do nové partition, jinak by ATTACH selhal
+    LOCK TABLE reservations_default IN SHARE ROW EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE public.%I (LIKE reservations INCLUDING DEFAULTS INCLUDING GENERATED)', part_name);
+    EXECUTE format('ALTER TABLE public.%I ADD CONSTRAINT %I CHECK (reservation_date >= %L AND reservation_date < %L)',
+                   part_name, part_name || '_range', first_day, next_month);
+
+    -- Generovaný sloupec (search_vector) se nekopíruje, přepočítá se sám
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum) INTO column_list
+    FROM pg_attribute
+    WHERE attrelid = 'reservations'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+    EXECUTE format('WITH moved AS (DELETE FROM reservations_default'
+                   '               WHERE reservation_date >= %L AND reservation_date < %L RETURNING %s)'
+                   ' INSERT INTO public.%I (%s) SELECT %s FROM moved',
+                   first_day, next_month, column_list, part_name, column_list, column_list);
+
+    EXECUTE format('ALTER TABLE public.%I ADD CONSTRAINT %I'
+                   ' EXCLUDE USING gist (facility_id WITH =, tsrange(start_time, end_time) WITH &&)',
+                   part_name, part_name || '_no_overlap');
+    EXECUTE format('ALTER TABLE reservations ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   part_name, first_day, next_month);
+    EXECUTE format('ALTER TABLE public.%I DROP CONSTRAINT %I', part_name, part_name || '_range');
+    RETURN TRUE;
+END;
+$$;
+
+-- Odpojí měsíční partitions, které celé leží před zadaným datem, a přesune je do schématu archive.
+-- Archivované tabulky nemají cizí klíče, takže nebrání smazání uživatele ani sportoviště.
+-- DETACH krátce zamkne celou tabulku reservations; pokud se zámek nepodaří získat do 5 s, funkce skončí
+-- chybou a archivace proběhne při dalším spuštění. Vrací názvy archivovaných partitions.
+CREATE OR REPLACE FUNCTION archive_reservation_partitions(cutoff DATE) RETURNS SETOF TEXT
+    LANGUAGE plpgsql
+    SET lock_timeout = '5s'
+AS $$
+DECLARE
+    part_name TEXT;
+    fk_name   TEXT;
+BEGIN
+    FOR part_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'reservations'::regclass
+          AND c.relname ~ '^reservations_[0-9]{4}_[0-9]{2}$'
+          AND to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE reservations DETACH PARTITION public.%I', part_name);
+        FOR fk_name IN SELECT conname FROM pg_constraint
+                  WHERE conrelid = format('public.%I', part_name)::regclass AND contype = 'f'
+        LOOP
+            EXECUTE format('ALTER TABLE public.%I DROP CONSTRAINT %I', part_name, fk_name);
+        END LOOP;
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA archive', part_name);
+        RETURN NEXT part_name;
+    END LOOP;
+END;
+$$;
+
+-- Převod existující tabulky: nová rozdělená tabulka, partitions pro všechny měsíce s daty a tři měsíce dopředu,
+-- přesun řádků a odstranění původní tabulky. Na již rozdělené tabulce se nic nestane.
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'reservations'::regclass) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE reservations RENAME TO reservations_unpartitioned;
+    ALTER TABLE reservations_unpartitioned DROP CONSTRAINT reservations_no_overlap;
+    ALTER TABLE reservations_unpartitioned RENAME CONSTRAINT reservations_pkey TO reservations_unpartitioned_pkey;
+    DROP INDEX reservations_user_start_idx;
+    DROP INDEX reservations_date_facility_idx;
+    DROP INDEX reservations_search_idx;
+
+    CREATE TABLE reservations (
+        id               BIGINT       NOT NULL,
+        start_time       TIMESTAMP(6) NOT NULL,
+        end_time         TIMESTAMP(6) NOT NULL,
+        reservation_date DATE         NOT NULL,
+        note             VARCHAR(255),
+        user_id          BIGINT       NOT NULL REFERENCES users (id),
+        facility_id      INTEGER      NOT NULL REFERENCES facilities (id),
+        version          BIGINT       NOT NULL DEFAULT 0,
+        search_vector    tsvector GENERATED ALWAYS AS (to_tsvector('simple', coalesce(note, ''))) STORED,
+        PRIMARY KEY (id, reservation_date)
+    ) PARTITION BY RANGE (reservation_date);
+
+    -- Indexy na rozdělené tabulce se automaticky zakládají i na každé partition
+    CREATE INDEX reservations_user_start_idx ON reservations (user_id, start_time);
+    CREATE INDEX reservations_date_facility_idx ON reservations (reservation_date, facility_id);
+    CREATE INDEX reservations_search_idx ON reservations USING gin (search_vector);
+
+    CREATE TABLE reservations_default PARTITION OF reservations DEFAULT;
+    ALTER TABLE reservations_default ADD CONSTRAINT reservations_default_no_overlap
+        EXCLUDE USING gist (facility_id WITH =, tsrange(start_time, end_time) WITH &&);
+
+    FOR month IN
+        SELECT generate_series(date_trunc('month', LEAST(COALESCE(first_day, CURRENT_DATE), CURRENT_DATE)),
+                               date_trunc('month', GREATEST(COALESCE(last_day, CURRENT_DATE),
+                                                            CURRENT_DATE + INTERVAL '3 months')),
+                               INTERVAL '1 month')::date
+        FROM (SELECT MIN(reservation_date) AS first_day, MAX(reservation_date) AS last_day
+              FROM reservations_unpartitioned) bounds
+    LOOP
+        PERFORM create_reservation_partition(month);
+    END LOOP;
+
+    INSERT INTO reservations (id, start_time, end_time, reservation_date, note, user_id, facility_id, version)
+    SELECT id, start_time, end_time, reservation_date, note, user_id, facility_id, version
+    FROM reservations_unpartitioned;
+
+    DROP TABLE reservations_unpartitioned;
+END $$;
+
+ANALYZE reservations;
@@ -0,0 +1,87 @@
+-- Funkce údržby partitions z V11 s transakčním advisory zámkem. Bez něj mohly dva uzly aplikace současně
+-- zakládat stejnou partition (oba prošly kontrolou existence, druhý pak skončil chybou na CREATE TABLE) nebo
+-- archivovat a zakládat zároveň. Druhé volání teď počká na dokončení prvního (nejvýš lock_timeout)
+-- a pak už partition najde. Těla funkcí jsou jinak stejná jako ve V11.
+
+-- Založí partition pro měsíc obsahující zadané datum (reservations_RRRR_MM), pokud ještě neexistuje
+-- ani není archivovaná. Tabulka se připraví zvlášť, naplní řádky z reservations_default a teprve pak připojí;
+-- kontrola rozsahu (CHECK) ušetří při ATTACH procházení tabulky. Vrací true, pokud partition vznikla.
+CREATE OR REPLACE FUNCTION create_reservation_partition(for_date DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql
+    SET lock_timeout = '5s'
+AS $$
+DECLARE
+    first_day   DATE := date_trunc('month', for_date)::date;
+    next_month  DATE := (date_trunc('month', for_date) + INTERVAL '1 month')::date;
+    part_name   TEXT := 'reservations_' || to_char(for_date, 'YYYY_MM');
+    column_list TEXT;
+BEGIN
+    -- Údržbu spouští každý uzel aplikace; souběžná volání se řadí za sebe (zámek drží transakce volajícího)
+    PERFORM pg_advisory_xact_lock(hashtext('reservation_partitions'));
+
+    IF to_regclass(format('public.%I', part_name)) IS NOT NULL
+            OR to_regclass(format('archive.%I', part_name)) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Do reservations_default se mezitím nesmí zapsat řádek patřící do nové partition, jinak by ATTACH selhal
+    LOCK TABLE reservations_default IN SHARE ROW EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE public.%I (LIKE reservations INCLUDING DEFAULTS INCLUDING GENERATED)', part_name);
+    EXECUTE format('ALTER TABLE public.%I ADD CONSTRAINT %I CHECK (reservation_date >= %L AND reservation_date < %L)',
+                   part_name, part_name || '_range', first_day, next_month);
+
+    -- Generovaný sloupec (search_vector) se nekopíruje, přepočítá se sám
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum) INTO column_list
+    FROM pg_attribute
+    WHERE attrelid = 'reservations'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+    EXECUTE format('WITH moved AS (DELETE FROM reservations_default'
+                   '               WHERE reservation_date >= %L AND reservation_date < %L RETURNING %s)'
+                   ' INSERT INTO public.%I (%s) SELECT %s FROM moved',
+                   first_day, next_month, column_list, part_name, column_list, column_list);
+
+    EXECUTE format('ALTER TABLE public.%I ADD CONSTRAINT %I'
+                   ' EXCLUDE USING gist (facility_id WITH =, tsrange(start_time, end_time) WITH &&)',
+                   part_name, part_name || '_no_overlap');
+    EXECUTE format('ALTER TABLE reservations ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   part_name, first_day, next_month);
+    EXECUTE format('ALTER TABLE public.%I DROP CONSTRAINT %I', part_name, part_name || '_range');
+    RETURN TRUE;
+END;
+$$;
+
+-- Odpojí měsíční partitions, které celé leží před zadaným datem, a přesune je do schématu archive.
+-- Archivované tabulky nemají cizí klíče, takže nebrání smazání uživatele ani sportoviště.
+-- DETACH krátce zamkne celou tabulku reservations; pokud se zámek nepodaří získat do 5 s, funkce skončí
+-- chybou a archivace proběhne při dalším spuštění. Vrací názvy archivovaných partitions.
+CREATE OR REPLACE FUNCTION archive_reservation_partitions(cutoff DATE) RETURNS SETOF TEXT
+    LANGUAGE plpgsql
+    SET lock_timeout = '5s'
+AS $$
+DECLARE
+    part_name TEXT;
+    fk_name   TEXT;
+BEGIN
+    -- Údržbu spouští každý uzel aplikace; souběžná volání se řadí za sebe (zámek drží transakce volajícího)
+    PERFORM pg_advisory_xact_lock(hashtext('reservation_partitions'));
+
+    FOR part_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'reservations'::regclass
+          AND c.relname ~ '^reservations_[0-9]{4}_[0-9]{2}$'
+          AND to_date(right(c.relname, 7), 'YYYY_MM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE reservations DETACH PARTITION public.%I', part_name);
+        FOR fk_name IN SELECT conname FROM pg_constraint
+                  WHERE conrelid = format('public.%I', part_name)::regclass AND contype = 'f'
+        LOOP
+            EXECUTE format('ALTER TABLE public.%I DROP CONSTRAINT %I', part_name, fk_name);
+        END LOOP;
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA archive', part_name);
+        RETURN NEXT part_name;
+    END LOOP;
+END;
+$$;
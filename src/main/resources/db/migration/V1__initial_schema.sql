@@ -0,0 +1,29 @@
+-- Výchozí schéma odpovídající tabulkám, které dříve vytvářel Hibernate (ddl-auto=update).
+-- Na existujících databázích se díky IF NOT EXISTS nic nezmění.
+
+CREATE TABLE IF NOT EXISTS roles (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    name     VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS users_roles (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    role_id BIGINT NOT NULL REFERENCES roles (id)
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(255) NOT NULL,
+    start_time       TIMESTAMP(6) NOT NULL,
+    end_time         TIMESTAMP(6) NOT NULL,
+    reservation_date DATE         NOT NULL,
+    note             VARCHAR(255),
+    user_id          BIGINT       NOT NULL REFERENCES users (id)
+);
@@ -0,0 +1,63 @@
+-- Vylučovací omezení jako pojistka proti dvojí rezervaci: na stejném sportovišti se nesmí
+-- překrývat časové intervaly [start_time, end_time). Chrání i při běhu více instancí aplikace.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Databáze z doby před touto migrací (ddl-auto=update) překryv nekontrolovala a překrývající se rezervace
+-- obsahovat může; s nimi by omezení nešlo přidat a aplikace by nenastartovala. Vylučovací omezení nelze
+-- přidat jako NOT VALID, proto se kolize vyřeší předem: rezervace, která se překrývá s dříve vytvořenou
+-- (nižší ID) na stejném sportovišti, se přesune do tabulky reservation_overlap_conflicts a migrace vypíše
+-- jejich počet (WARNING v logu Flyway). Přesunuté rezervace je potřeba vyřešit ručně (domluvit jiný termín
+-- a vrátit je, nebo smazat), tabulka se sama nemaže.
+CREATE TABLE IF NOT EXISTS reservation_overlap_conflicts (
+    id               BIGINT       NOT NULL,
+    title            VARCHAR(255) NOT NULL,
+    start_time       TIMESTAMP(6) NOT NULL,
+    end_time         TIMESTAMP(6) NOT NULL,
+    reservation_date DATE         NOT NULL,
+    note             VARCHAR(255),
+    user_id          BIGINT       NOT NULL,
+    moved_at         TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+DO $$
+DECLARE
+    candidate BIGINT;
+    moved     INTEGER := 0;
+BEGIN
+    -- Postupně podle ID, aby rozhodovaly jen rezervace, které v tabulce zůstávají: rezervace překrývající
+    -- se jen s už přesunutou zůstane.
+    FOR candidate IN
+        SELECT later.id FROM reservations later
+        WHERE EXISTS (SELECT 1 FROM reservations earlier
+                      WHERE earlier.title = later.title
+                        AND earlier.id < later.id
+                        AND earlier.start_time < later.end_time
+                        AND earlier.end_time > later.start_time)
+        ORDER BY later.id
+    LOOP
+        WITH conflicting AS (
+            DELETE FROM reservations later
+            WHERE later.id = candidate
+              AND EXISTS (SELECT 1 FROM reservations earlier
+                          WHERE earlier.title = later.title
+                            AND earlier.id < later.id
+                            AND earlier.start_time < later.end_time
+                            AND earlier.end_time > later.start_time)
+            RETURNING later.id, later.title, later.start_time, later.end_time, later.reservation_date, later.note,
+                      later.user_id
+        )
+        INSERT INTO reservation_overlap_conflicts (id, title, start_time, end_time, reservation_date, note, user_id)
+        SELECT id, title, start_time, end_time, reservation_date, note, user_id FROM conflicting;
+        IF FOUND THEN
+            moved := moved + 1;
+        END IF;
+    END LOOP;
+
+    IF moved > 0 THEN
+        RAISE WARNING '% překrývajících se rezervací přesunuto do reservation_overlap_conflicts, vyřešte je ručně', moved;
+    END IF;
+END $$;
+
+ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_no_overlap;
+ALTER TABLE reservations ADD CONSTRAINT reservations_no_overlap
+    EXCLUDE USING gist (title WITH =, tsrange(start_time, end_time) WITH &&);
@@ -0,0 +1,6 @@
+-- Sekvence pro ID rezervací (allocationSize = 50 v entitě Reservation) umožňuje dávkové vkládání.
+-- Musí začínat nad ID vytvořenými dříve přes IDENTITY.
+CREATE SEQUENCE IF NOT EXISTS reservation_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('reservation_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM reservations) + 50,
+                                          (SELECT last_value FROM reservation_seq)));
@@ -0,0 +1,6 @@
+-- Indexy pro nejčastější dotazy nad rezervacemi:
+--  * obsazenost dne a sportoviště, kontrola překryvu a výpis podle dne (findByReservationDateAndTitle,
+--    findByReservationDate, findByReservationDateBetweenAndTitleIn, keyset stránkování administrace),
+--  * rezervace uživatele (findByUserId, filtr uživatele v administraci).
+CREATE INDEX IF NOT EXISTS reservations_date_title_idx ON reservations (reservation_date, title);
+CREATE INDEX IF NOT EXISTS reservations_user_start_idx ON reservations (user_id, start_time);
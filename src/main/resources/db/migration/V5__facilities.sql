@@ -0,0 +1,97 @@
+-- Sportoviště jako samostatná tabulka s provozní dobou a délkou slotu. Rezervace na ně odkazují
+-- cizím klíčem místo volného textu v reservations.title (překlep v názvu dřív vytvořil nové sportoviště).
+CREATE TABLE IF NOT EXISTS facilities (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    opening_time TIME NOT NULL DEFAULT '08:00',
+    closing_time TIME NOT NULL DEFAULT '20:00',
+    slot_minutes INTEGER NOT NULL DEFAULT 30
+);
+
+INSERT INTO facilities (name) VALUES ('Tělocvična'), ('Bazén'), ('Fotbalové hřiště')
+ON CONFLICT (name) DO NOTHING;
+
+-- Převod existujících rezervací. Názvy se porovnávají bez ohledu na velikost písmen a okrajové mezery
+-- ("bazén ", "Bazén" i "BAZÉN" patří ke sportovišti Bazén; lower() se řídí locale databáze, v locale C
+-- převádí jen znaky ASCII). Název, který neodpovídá žádnému sportovišti,
+-- se stane novým sportovištěm (v nejčastějším zápisu) a migrace ho vypíše jako WARNING ke kontrole:
+-- překlepy je potřeba ručně sloučit se správným sportovištěm.
+-- Sloučením zápisů mohou vzniknout nové překryvy; pozdější z překrývajících se rezervací se stejně jako ve V2
+-- přesune do reservation_overlap_conflicts, stejně jako rezervace s prázdným názvem.
+DO $$
+DECLARE
+    unknown   TEXT[];
+    candidate BIGINT;
+    moved     INTEGER := 0;
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'reservations' AND column_name = 'title') THEN
+        SELECT array_agg(spelling ORDER BY spelling) INTO unknown
+        FROM (SELECT DISTINCT ON (lower(trim(title))) trim(title) AS spelling
+              FROM reservations
+              WHERE trim(title) <> ''
+                AND NOT EXISTS (SELECT 1 FROM facilities f WHERE lower(f.name) = lower(trim(title)))
+              GROUP BY lower(trim(title)), trim(title)
+              ORDER BY lower(trim(title)), count(*) DESC, trim(title)) spellings;
+        IF unknown IS NOT NULL THEN
+            INSERT INTO facilities (name)
+            SELECT unnest(unknown)
+            ON CONFLICT (name) DO NOTHING;
+            RAISE WARNING 'Z neznámých názvů rezervací vznikla sportoviště: %; zkontrolujte je',
+                array_to_string(unknown, ', ');
+        END IF;
+
+        ALTER TABLE reservations ADD COLUMN IF NOT EXISTS facility_id INTEGER REFERENCES facilities (id);
+        UPDATE reservations r SET facility_id = f.id FROM facilities f WHERE lower(f.name) = lower(trim(r.title));
+        -- Rezervace s prázdným názvem nepatří k žádnému sportovišti, také se přesunou k ručnímu vyřešení
+        WITH unassigned AS (
+            DELETE FROM reservations WHERE facility_id IS NULL
+            RETURNING id, title, start_time, end_time, reservation_date, note, user_id
+        )
+        INSERT INTO reservation_overlap_conflicts (id, title, start_time, end_time, reservation_date, note, user_id)
+        SELECT id, title, start_time, end_time, reservation_date, note, user_id FROM unassigned;
+        GET DIAGNOSTICS moved = ROW_COUNT;
+        ALTER TABLE reservations ALTER COLUMN facility_id SET NOT NULL;
+
+        ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_no_overlap;
+        FOR candidate IN
+            SELECT later.id FROM reservations later
+            WHERE EXISTS (SELECT 1 FROM reservations earlier
+                          WHERE earlier.facility_id = later.facility_id
+                            AND earlier.id < later.id
+                            AND earlier.start_time < later.end_time
+                            AND earlier.end_time > later.start_time)
+            ORDER BY later.id
+        LOOP
+            WITH conflicting AS (
+                DELETE FROM reservations later
+                WHERE later.id = candidate
+                  AND EXISTS (SELECT 1 FROM reservations earlier
+                              WHERE earlier.facility_id = later.facility_id
+                                AND earlier.id < later.id
+                                AND earlier.start_time < later.end_time
+                                AND earlier.end_time > later.start_time)
+                RETURNING later.id, later.title, later.start_time, later.end_time, later.reservation_date,
+                          later.note, later.user_id
+            )
+            INSERT INTO reservation_overlap_conflicts (id, title, start_time, end_time, reservation_date, note, user_id)
+            SELECT id, title, start_time, end_time, reservation_date, note, user_id FROM conflicting;
+            IF FOUND THEN
+                moved := moved + 1;
+            END IF;
+        END LOOP;
+        IF moved > 0 THEN
+            RAISE WARNING '% rezervací (překryv nebo prázdný název) přesunuto do reservation_overlap_conflicts, vyřešte je ručně',
+                moved;
+        END IF;
+
+        DROP INDEX IF EXISTS reservations_date_title_idx;
+        ALTER TABLE reservations DROP COLUMN title;
+    END IF;
+END $$;
+
+ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_no_overlap;
+ALTER TABLE reservations ADD CONSTRAINT reservations_no_overlap
+    EXCLUDE USING gist (facility_id WITH =, tsrange(start_time, end_time) WITH &&);
+
+CREATE INDEX IF NOT EXISTS reservations_date_facility_idx ON reservations (reservation_date, facility_id);
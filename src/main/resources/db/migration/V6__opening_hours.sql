@@ -0,0 +1,25 @@
+-- Provozní kalendář sportovišť: provozní doba a délka slotu podle dne v týdnu a dny, kdy je zavřeno.
+-- Řádek pro den v týdnu přepisuje výchozí hodnoty ze sportoviště (facilities.opening_time,
+-- closing_time, slot_minutes), bez řádku platí výchozí hodnoty. Prázdná délka slotu = výchozí.
+CREATE TABLE IF NOT EXISTS facility_opening_hours (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    facility_id INTEGER NOT NULL REFERENCES facilities (id) ON DELETE CASCADE,
+    day_of_week INTEGER NOT NULL CHECK (day_of_week BETWEEN 1 AND 7),  -- ISO 8601: 1 = pondělí, 7 = neděle
+    closed BOOLEAN NOT NULL DEFAULT FALSE,
+    opening_time TIME,
+    closing_time TIME,
+    slot_minutes INTEGER CHECK (slot_minutes > 0),
+    CONSTRAINT facility_opening_hours_day_uq UNIQUE (facility_id, day_of_week),
+    CONSTRAINT facility_opening_hours_time_chk
+        CHECK (closed OR (opening_time IS NOT NULL AND closing_time IS NOT NULL AND opening_time < closing_time))
+);
+
+-- Dny, kdy je sportoviště zavřené (svátky, údržba). Bez sportoviště platí pro všechna sportoviště.
+CREATE TABLE IF NOT EXISTS facility_closures (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    facility_id INTEGER REFERENCES facilities (id) ON DELETE CASCADE,
+    closure_date DATE NOT NULL,
+    reason VARCHAR(255)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS facility_closures_date_uq ON facility_closures (closure_date, COALESCE(facility_id, 0));
@@ -0,0 +1,4 @@
+-- Číslo verze rezervace pro optimistické zamykání (Reservation.version).
+-- Úprava rezervace se zapisuje podmíněným UPDATE ... WHERE id = ? AND version = ?, takže souběžná úprava
+-- stejné rezervace dvěma administrátory skončí konfliktem místo tichého přepsání.
+ALTER TABLE reservations ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Výchozí role nově registrovaných uživatelů. Registrace i hromadný import ji přiřazují přímo v INSERT
+-- (viz UserInsertRepositoryImpl), proto musí existovat předem.
+INSERT INTO roles (name) VALUES ('ROLE_USER') ON CONFLICT (name) DO NOTHING;
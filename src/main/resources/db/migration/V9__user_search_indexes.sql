@@ -0,0 +1,9 @@
+-- Indexy adresáře uživatelů v administraci (UserDirectoryRepositoryImpl):
+--  * trigramové GIN indexy pro hledání části jména nebo e-mailu bez ohledu na velikost písmen
+--    (lower(...) LIKE '%text%' i prefix 'text%'),
+--  * (name, id) pro řazení a stránkování kurzorem.
+-- pg_trgm je od PostgreSQL 13 "trusted" rozšíření, vytvořit ho může i vlastník databáze.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS users_name_trgm_idx ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS users_email_trgm_idx ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS users_name_id_idx ON users (name, id);
@@ -0,0 +1,120 @@
+package com.example;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Migrace Flyway nad databází ve stavu před první migrací (schéma V1, dřív vytvářené přes ddl-auto=update)
+ * s daty, která tehdejší aplikace nekontrolovala. Každý test má vlastní prázdnou databázi.
+ */
+class MigrationTest {
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void startDatabase() throws IOException {
+        // UTF-8 locale jako produkční databáze, v locale C by lower() v V5 nepřevedlo "É"
+        postgres = EmbeddedPostgres.builder().setLocaleConfig("locale", "C.UTF-8").start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        migrate("1");
+        jdbcTemplate.update("INSERT INTO users (id, email, name, password) VALUES (1, 'stary@example.com', 'Starý', 'x')");
+    }
+
+    @AfterEach
+    void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    /**
+     * Překrývající se rezervace ze staré databáze nezastaví migraci V2: pozdější z nich se přesunou
+     * do reservation_overlap_conflicts a vylučovací omezení se přidá.
+     */
+    @Test
+    void overlappingLegacyReservationsAreMovedAside() {
+        insertLegacy(1, "Tělocvična", "2024-05-06 10:00", "2024-05-06 11:00");
+        insertLegacy(2, "Tělocvična", "2024-05-06 10:30", "2024-05-06 11:30");  // Překrývá 1
+        insertLegacy(3, "Tělocvična", "2024-05-06 11:00", "2024-05-06 12:00");  // Navazuje na 1, zůstává
+        insertLegacy(4, "Bazén", "2024-05-06 10:00", "2024-05-06 11:00");  // Jiné sportoviště
+
+        migrate(null);
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM reservations ORDER BY id", Long.class))
+                .containsExactly(1L, 3L, 4L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM reservation_overlap_conflicts", Long.class))
+                .containsExactly(2L);
+    }
+
+    /**
+     * Provozní doba, která by dala nekladnou délku slotu nebo víc než 64 slotů za den, se do databáze nedostane.
+     */
+    @Test
+    void invalidSlotGridsAreRejected() {
+        migrate(null);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO facilities (name, slot_minutes) VALUES ('Nula', 0)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO facilities (name, opening_time, closing_time, slot_minutes)"
+                + " VALUES ('Squash', '06:00', '23:00', 15)"))  // 68 slotů
+                .isInstanceOf(DataIntegrityViolationException.class);
+        jdbcTemplate.update("INSERT INTO facilities (name, opening_time, closing_time, slot_minutes)"
+                + " VALUES ('Kurt', '06:00', '22:00', 15)");  // Právě 64 slotů
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO facility_opening_hours"
+                + " (facility_id, day_of_week, opening_time, closing_time, slot_minutes)"
+                + " SELECT id, 1, '06:00', '23:00', 10 FROM facilities WHERE name = 'Kurt'"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    /**
+     * V5 přiřadí rezervace ke sportovištím bez ohledu na velikost písmen a okrajové mezery, z neznámého názvu
+     * vznikne jediné sportoviště (v nejčastějším zápisu) a překryvy vzniklé sloučením zápisů se přesunou stranou.
+     */
+    @Test
+    void legacyTitlesAreNormalizedToFacilities() {
+        insertLegacy(1, "Bazén", "2024-05-06 10:00", "2024-05-06 11:00");
+        insertLegacy(2, " bazén ", "2024-05-06 10:30", "2024-05-06 11:30");  // Po sloučení překrývá 1
+        insertLegacy(3, "BAZÉN", "2024-05-06 12:00", "2024-05-06 13:00");
+        insertLegacy(4, "Kurt", "2024-05-06 10:00", "2024-05-06 11:00");
+        insertLegacy(5, "kurt ", "2024-05-07 10:00", "2024-05-07 11:00");
+        insertLegacy(6, "Kurt", "2024-05-08 10:00", "2024-05-08 11:00");
+
+        migrate(null);
+
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM facilities ORDER BY id", String.class))
+                .containsExactly("Tělocvična", "Bazén", "Fotbalové hřiště", "Kurt");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT r.id FROM reservations r JOIN facilities f ON f.id = r.facility_id"
+                        + " WHERE f.name = 'Bazén' ORDER BY r.id", Long.class))
+                .containsExactly(1L, 3L);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT r.id FROM reservations r JOIN facilities f ON f.id = r.facility_id"
+                        + " WHERE f.name = 'Kurt' ORDER BY r.id", Long.class))
+                .containsExactly(4L, 5L, 6L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM reservation_overlap_conflicts", Long.class))
+                .containsExactly(2L);
+    }
+
+    private void insertLegacy(long id, String title, String start, String end) {
+        jdbcTemplate.update("INSERT INTO reservations (id, title, start_time, end_time, reservation_date, note, user_id)"
+                        + " VALUES (?, ?, ?::timestamp, ?::timestamp, ?::timestamp::date, 'stará', 1)",
+                id, title, start, end, start);
+    }
+
+    private void migrate(String target) {
+        Flyway flyway = Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .target(target != null ? target : "latest")
+                .load();
+        flyway.migrate();
+    }
+}
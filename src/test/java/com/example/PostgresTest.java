@@ -0,0 +1,47 @@
+package com.example;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Základ integračních testů: celá aplikace nad vestavěnou databází PostgreSQL (stejně jako zátěžový test
+ * v modulu benchmarks). Databáze se spustí jednou pro celý běh testů, schéma i sportoviště vytvoří migrace
+ * Flyway a kontext Springu sdílí všechny testy se stejnou konfigurací. Testy proto pracují s vlastními
+ * sportovišti nebo dny, aby se navzájem neovlivňovaly. Požadavky na kontrolery posílá MockMvc; stejná
+ * konfigurace pro všechny testy drží jediný kontext (JCache regiony entit se zakládají jen jednou).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class PostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // Databáze končí s procesem testů
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
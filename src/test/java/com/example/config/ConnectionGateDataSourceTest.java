@@ -0,0 +1,67 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Wrapper;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Proxy spojení z ConnectionGateDataSource: zavření vrací povolení právě jednou a unwrap/isWrapperFor
+ * vedou k původnímu spojení poolu.
+ */
+class ConnectionGateDataSourceTest {
+
+    /** Rozhraní, které implementuje jen spojení poolu (jako HikariProxyConnection nebo PgConnection). */
+    interface PoolConnection extends Connection {
+    }
+
+    private final PoolConnection target = mock(PoolConnection.class);
+    private final DataSource pool = mock(DataSource.class);
+    private final ConnectionGateDataSource gate = new ConnectionGateDataSource(pool, 1, Duration.ofMillis(50));
+
+    @Test
+    void unwrapReachesPoolConnection() throws Exception {
+        when(pool.getConnection()).thenReturn(target);
+        when(target.unwrap(PoolConnection.class)).thenReturn(target);
+        when(target.isWrapperFor(PoolConnection.class)).thenReturn(true);
+
+        Connection connection = gate.getConnection();
+
+        assertThat(connection.isWrapperFor(ConnectionProxy.class)).isTrue();
+        assertThat(connection.isWrapperFor(Wrapper.class)).isTrue();
+        assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+        assertThat(connection.isWrapperFor(PoolConnection.class)).isTrue();
+        assertThat(connection.unwrap(PoolConnection.class)).isSameAs(target);
+        assertThat(DataSourceUtils.getTargetConnection(connection)).isSameAs(target);
+        assertThat(connection).isEqualTo(connection).isNotEqualTo(target);
+        connection.close();
+    }
+
+    @Test
+    void closeReleasesPermitOnce() throws Exception {
+        when(pool.getConnection()).thenReturn(target);
+
+        Connection connection = gate.getConnection();
+        assertThatThrownBy(gate::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        connection.close();
+        connection.close();
+        verify(target, times(2)).close();
+
+        Connection next = gate.getConnection();
+        assertThatThrownBy(gate::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        next.close();
+    }
+}
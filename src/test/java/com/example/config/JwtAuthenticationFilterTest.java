@@ -0,0 +1,100 @@
+package com.example.config;
+
+import com.example.dto.UserIdentity;
+import com.example.service.UserIdentityCache;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Obnovení tokenu podle aktuální identity uživatele. Token s platností 4 s se po 2,1 s dostane do druhé
+ * poloviny platnosti, kdy ho filtr obnovuje.
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String COOKIE = "AUTH_TOKEN";
+    private static final UserIdentity IDENTITY = new UserIdentity(7L, "Jan Novák", "jan@example.com", List.of("ROLE_USER"));
+
+    private static final JwtService JWT_SERVICE = new JwtService(
+            Base64.getEncoder().encodeToString(new byte[32]), Duration.ofSeconds(4), COOKIE);
+    // Mock se vytvoří před vydáním tokenu, první vytvoření mocku může trvat déle než platnost tokenu
+    private static final UserIdentityCache IDENTITY_CACHE = mock(UserIdentityCache.class);
+    private static final JwtAuthenticationFilter FILTER = new JwtAuthenticationFilter(JWT_SERVICE, IDENTITY_CACHE);
+    private static String renewableToken;
+
+    @BeforeAll
+    static void issueToken() throws InterruptedException {
+        renewableToken = JWT_SERVICE.issue(IDENTITY);
+        Thread.sleep(2100);
+    }
+
+    @AfterEach
+    void reset() {
+        SecurityContextHolder.clearContext();
+        Mockito.reset(IDENTITY_CACHE);
+    }
+
+    @Test
+    void renewsFromCurrentIdentity() throws Exception {
+        when(IDENTITY_CACHE.get(IDENTITY.email()))
+                .thenReturn(new UserIdentity(7L, "Jan Nový", "jan@example.com", List.of("ROLE_USER")));
+
+        MockHttpServletResponse response = filter(renewableToken);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        String renewed = cookieValue(response);
+        assertThat(renewed).isNotEmpty();
+        assertThat(JWT_SERVICE.parse(renewed).identity().name()).isEqualTo("Jan Nový");
+    }
+
+    @Test
+    void refusesRenewalForDeletedUser() throws Exception {
+        when(IDENTITY_CACHE.get(IDENTITY.email())).thenReturn(null);
+
+        MockHttpServletResponse response = filter(renewableToken);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(cookieValue(response)).isEmpty();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).contains("Max-Age=0");
+    }
+
+    @Test
+    void refusesRenewalWhenRolesChanged() throws Exception {
+        when(IDENTITY_CACHE.get(IDENTITY.email()))
+                .thenReturn(new UserIdentity(7L, "Jan Novák", "jan@example.com", List.of()));
+
+        MockHttpServletResponse response = filter(renewableToken);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(cookieValue(response)).isEmpty();
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations");
+        request.setCookies(new Cookie(COOKIE, token));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FILTER.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static String cookieValue(MockHttpServletResponse response) {
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(header).startsWith(COOKIE + "=");
+        return header.substring(COOKIE.length() + 1, header.indexOf(';'));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.config;
+
+import com.example.PostgresTest;
+import com.example.service.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Metriky: export pro Prometheus jen pro roli ADMIN a tag facility jen se známými ID sportovišť.
+ */
+class MetricsAccessTest extends PostgresTest {
+
+    private static final String ADMIN = "metriky-admin@example.com";
+    private static final String USER = "metriky-user@example.com";
+    private static final String PASSWORD = "heslo-123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createAccounts() {
+        jdbcTemplate.update("INSERT INTO roles (name) VALUES ('ROLE_ADMIN') ON CONFLICT (name) DO NOTHING");
+        createAccount(ADMIN, "ROLE_ADMIN");
+        createAccount(USER, "ROLE_USER");
+    }
+
+    @Test
+    void prometheusRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isIn(302, 401));
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic(USER)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic(ADMIN)))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isNotIn(302, 401, 403));
+    }
+
+    @Test
+    void unknownFacilityIsTaggedAsUnknown() {
+        assertThatThrownBy(() -> reservationService.getAvailableSlots(987654, LocalDate.of(2031, 5, 5)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(meterRegistry.find("reservations.slots.lookup").tag("facility", "unknown").timer()).isNotNull();
+        assertThat(meterRegistry.find("reservations.slots.lookup").tag("facility", "987654").timer()).isNull();
+    }
+
+    private static String basic(String email) {
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void createAccount(String email, String role) {
+        jdbcTemplate.update("INSERT INTO users (email, name, password) VALUES (?, 'Metriky', ?) ON CONFLICT (email) DO NOTHING",
+                email, passwordEncoder.encode(PASSWORD));
+        jdbcTemplate.update("INSERT INTO users_roles (user_id, role_id)"
+                + " SELECT u.id, r.id FROM users u, roles r WHERE u.email = ? AND r.name = ?"
+                + " AND NOT EXISTS (SELECT 1 FROM users_roles ur WHERE ur.user_id = u.id AND ur.role_id = r.id)",
+                email, role);
+    }
+}
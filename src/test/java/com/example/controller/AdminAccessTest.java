@@ -0,0 +1,105 @@
+package com.example.controller;
+
+import com.example.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Administrace (/admin/**) jen pro roli ADMIN, včetně hromadného importu uživatelů, a ošetření
+ * chybných parametrů (adresář uživatelů, stránka hledání).
+ */
+class AdminAccessTest extends PostgresTest {
+
+    private static final String ADMIN = "sprava-admin@example.com";
+    private static final String USER = "sprava-user@example.com";
+    private static final String PASSWORD = "heslo-123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void createAccounts() {
+        jdbcTemplate.update("INSERT INTO roles (name) VALUES ('ROLE_ADMIN') ON CONFLICT (name) DO NOTHING");
+        createAccount(ADMIN, "ROLE_ADMIN");
+        createAccount(USER, "ROLE_USER");
+    }
+
+    @Test
+    void userImportRequiresAdmin() throws Exception {
+        mockMvc.perform(multipart("/admin/users/import").file(csv("import-anonym@example.com")))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isIn(302, 401));
+        mockMvc.perform(multipart("/admin/users/import").file(csv("import-user@example.com"))
+                        .header(HttpHeaders.AUTHORIZATION, basic(USER)))
+                .andExpect(status().isForbidden());
+        assertThat(countUsers("import-anonym@example.com")).isZero();
+        assertThat(countUsers("import-user@example.com")).isZero();
+
+        mockMvc.perform(multipart("/admin/users/import").file(csv("import-admin@example.com"))
+                        .header(HttpHeaders.AUTHORIZATION, basic(ADMIN)))
+                .andExpect(redirectedUrl("/admin?imported=1&duplicates=0&invalid=0"));
+        assertThat(countUsers("import-admin@example.com")).isOne();
+    }
+
+    @Test
+    void userDirectoryRejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/admin/users").param("after", "neni-kurzor").header(HttpHeaders.AUTHORIZATION, basic(ADMIN)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/admin/users").param("q", "sp").header(HttpHeaders.AUTHORIZATION, basic(ADMIN)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/admin/users").param("q", "spr").header(HttpHeaders.AUTHORIZATION, basic(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(ADMIN)));
+    }
+
+    @Test
+    void searchToleratesHugePageNumber() throws Exception {
+        mockMvc.perform(get("/admin/reservations/search").param("q", "turnaj").param("page", String.valueOf(Integer.MAX_VALUE))
+                        .header(HttpHeaders.AUTHORIZATION, basic(ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    private static MockMultipartFile csv(String email) {
+        String content = "first_name,last_name,email,password\nJan,Novák," + email + ",heslo-123\n";
+        return new MockMultipartFile("file", "users.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int countUsers(String email) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE email = ?", Integer.class, email);
+    }
+
+    private static String basic(String email) {
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void createAccount(String email, String role) {
+        jdbcTemplate.update("INSERT INTO users (email, name, password) VALUES (?, 'Správa', ?) ON CONFLICT (email) DO NOTHING",
+                email, passwordEncoder.encode(PASSWORD));
+        jdbcTemplate.update("INSERT INTO users_roles (user_id, role_id)"
+                + " SELECT u.id, r.id FROM users u, roles r WHERE u.email = ? AND r.name = ?"
+                + " AND NOT EXISTS (SELECT 1 FROM users_roles ur WHERE ur.user_id = u.id AND ur.role_id = r.id)",
+                email, role);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.controller;
+
+import com.example.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+/**
+ * Registrace při přetíženém hashování hesel: místo chyby serveru se formulář zobrazí znovu s výzvou.
+ */
+class AuthControllerTest extends PostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ThreadPoolExecutor passwordHashingExecutor;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseExecutor() {
+        release.countDown();
+    }
+
+    private void block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void registrationRerendersFormWhenHashingIsBusy() throws Exception {
+        // Obsadí všechna vlákna i celou frontu executoru hashování; vlákna si úlohy z fronty berou průběžně,
+        // proto se doplňuje, dokud nejsou všechna vlákna zaměstnaná a fronta plná
+        while (passwordHashingExecutor.getActiveCount() < passwordHashingExecutor.getMaximumPoolSize()
+                || passwordHashingExecutor.getQueue().remainingCapacity() > 0) {
+            try {
+                passwordHashingExecutor.execute(this::block);
+            } catch (RejectedExecutionException e) {
+                Thread.sleep(10);
+            }
+        }
+
+        mockMvc.perform(post("/register/save")
+                        .param("firstName", "Jan")
+                        .param("lastName", "Novák")
+                        .param("email", "pretizeni@example.com")
+                        .param("password", "heslo-123"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("/register"))
+                .andExpect(content().string(containsString("zkuste to prosím za chvíli znovu")))
+                .andExpect(content().string(containsString("pretizeni@example.com")));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.controller;
+
+import com.example.PostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Odběr změn volných slotů drží spojení otevřené, proto je jen pro přihlášené uživatele.
+ */
+class SlotStreamAccessTest extends PostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void anonymousClientCannotSubscribe() throws Exception {
+        mockMvc.perform(get("/reservations/slots/stream").param("facilityId", "1").param("date", "2031-06-02"))
+                .andExpect(result -> assertThat(result.getResponse().getStatus()).isIn(302, 401))
+                .andExpect(result -> assertThat(result.getRequest().isAsyncStarted()).isFalse());
+    }
+}
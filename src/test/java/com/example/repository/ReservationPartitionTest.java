@@ -0,0 +1,64 @@
+package com.example.repository;
+
+import com.example.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Souběžné založení stejné partition z více uzlů (zde vláken startujících naráz): advisory zámek je
+ * seřadí, partition vznikne právě jednou a ostatní volání skončí bez chyby s výsledkem false.
+ */
+class ReservationPartitionTest extends PostgresTest {
+
+    private static final int NODES = 4;
+    private static final LocalDate MONTH = LocalDate.of(2035, 3, 1);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropPartition() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS reservations_2035_03");
+    }
+
+    @Test
+    void concurrentCreationCreatesPartitionOnce() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(NODES);
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < NODES; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return reservationRepository.createPartition(MONTH);
+                }));
+            }
+            List<Boolean> created = new ArrayList<>();
+            for (Future<Boolean> result : results) {
+                created.add(result.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(created).containsOnlyOnce(true);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM pg_inherits"
+                + " WHERE inhparent = 'reservations'::regclass AND inhrelid = 'reservations_2035_03'::regclass",
+                Integer.class)).isOne();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.repository;
+
+import com.example.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plány nejčastějších dotazů nad rezervacemi (EXPLAIN): s realistickým objemem dat musí PostgreSQL použít
+ * indexy z migrací, ne sekvenční průchod. Data i statistiky (ANALYZE) vznikají v transakci, která se na konci
+ * odvolá, takže ostatní testy neovlivní. Dotazy odpovídají SQL, které generují metody ReservationRepository.
+ * Data roku 2032 leží v reservations_default; prázdné měsíční partitions PostgreSQL právem projde sekvenčně.
+ */
+class ReservationQueryPlanTest extends PostgresTest {
+
+    private static final int USERS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate rollback;
+
+    @BeforeEach
+    void setUp() {
+        rollback = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * findByReservationDateAndFacilityId - načtení obsazenosti dne do indexu slotů.
+     */
+    @Test
+    void dayOccupancyUsesDateFacilityIndex() {
+        withSeededData(() -> assertIndexScan(
+                "SELECT id, start_time, end_time FROM reservations"
+                        + " WHERE reservation_date = DATE '2032-06-15' AND facility_id = 2",
+                "reservation_date_facility_id_idx"));
+    }
+
+    /**
+     * existsByFacilityIdAndReservationDateAndStartTimeLessThanAndEndTimeGreaterThan - kontrola překryvu.
+     */
+    @Test
+    void overlapCheckUsesAnIndex() {
+        withSeededData(() -> assertIndexScan(
+                "SELECT id FROM reservations WHERE facility_id = 2 AND reservation_date = DATE '2032-06-15'"
+                        + " AND start_time < TIMESTAMP '2032-06-15 11:00' AND end_time > TIMESTAMP '2032-06-15 10:00'"
+                        + " LIMIT 1",
+                "_idx"));
+    }
+
+    /**
+     * findViewsByUserId - rezervace přihlášeného uživatele seřazené podle začátku.
+     */
+    @Test
+    void userReservationsUseUserStartIndex() {
+        withSeededData(() -> assertIndexScan(
+                "SELECT r.id, f.name, r.start_time FROM reservations r JOIN facilities f ON f.id = r.facility_id"
+                        + " WHERE r.user_id = (SELECT min(id) FROM users WHERE email LIKE 'plan%@example.com')"
+                        + " ORDER BY r.start_time, r.id",
+                "user_id_start_time_idx"));
+    }
+
+    /**
+     * Naplní 18 000 rezervací (600 dní, 3 sportoviště, 10 hodinových slotů, 50 uživatelů), spočítá statistiky,
+     * provede kontrolu a vše odvolá.
+     */
+    private void withSeededData(Runnable check) {
+        rollback.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO users (email, name, password)"
+                    + " SELECT 'plan' || n || '@example.com', 'Plán ' || n, 'x' FROM generate_series(1, ?) n", USERS);
+            jdbcTemplate.update("INSERT INTO reservations (id, start_time, end_time, reservation_date, note, user_id, facility_id)"
+                    + " SELECT -row_number() OVER (), d + make_interval(hours => 8 + s), d + make_interval(hours => 9 + s),"
+                    + "        d::date, 'plán', u.ids[1 + (s * 7 + f * 3 + extract(doy FROM d)::int) % array_length(u.ids, 1)], f"
+                    + " FROM generate_series(TIMESTAMP '2032-01-01', TIMESTAMP '2032-01-01' + INTERVAL '599 days',"
+                    + "                      INTERVAL '1 day') d,"
+                    + "      generate_series(1, 3) f,"
+                    + "      generate_series(0, 9) s,"
+                    + "      (SELECT array_agg(id) AS ids FROM users WHERE email LIKE 'plan%@example.com') u");
+            jdbcTemplate.execute("ANALYZE reservations");
+            jdbcTemplate.execute("ANALYZE users");
+            check.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    private void assertIndexScan(String sql, String indexSuffix) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        assertThat(plan)
+                .as("Plán dotazu %s", sql)
+                .doesNotContain("Seq Scan on reservations_default")
+                .containsPattern("Index (Only )?Scan|Bitmap Index Scan")
+                .containsPattern("reservations_\\w*" + indexSuffix);
+    }
+}
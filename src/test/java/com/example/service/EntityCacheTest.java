@@ -0,0 +1,93 @@
+package com.example.service;
+
+import com.example.PostgresTest;
+import com.example.entity.User;
+import com.example.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Druhoúrovňová cache a cache dotazů podle statistik Hibernate: opakované načtení uživatele nejde
+ * do databáze a zápis mimo Hibernate je vidět až po zneplatnění přes EntityCache.
+ */
+class EntityCacheTest extends PostgresTest {
+
+    private static final String EMAIL = "cache-entit@example.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (email, name, password) VALUES (?, 'Původní', 'x')"
+                + " ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name RETURNING id", Long.class, EMAIL);
+        entityCache.evictUser(userId);
+    }
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        entityCache.evictUser(userId);
+    }
+
+    @Test
+    void secondLoadByIdIsCacheHit() {
+        userRepository.findById(userId).orElseThrow();
+
+        User cached = withoutStatements(() -> userRepository.findById(userId).orElseThrow());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(cached.getName()).isEqualTo("Původní");
+    }
+
+    @Test
+    void secondQueryByEmailIsCacheHit() {
+        userRepository.findByEmail(EMAIL);
+
+        User cached = withoutStatements(() -> userRepository.findByEmail(EMAIL));
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+        assertThat(cached.getId()).isEqualTo(userId);
+    }
+
+    @Test
+    void writeOutsideHibernateIsVisibleAfterEviction() {
+        userRepository.findById(userId).orElseThrow();
+        jdbcTemplate.update("UPDATE users SET name = 'Změněné' WHERE id = ?", userId);
+
+        assertThat(userRepository.findById(userId).orElseThrow().getName()).isEqualTo("Původní");  // Z cache
+        entityCache.evictUser(userId);
+        assertThat(userRepository.findById(userId).orElseThrow().getName()).isEqualTo("Změněné");
+    }
+
+    /**
+     * Provede načtení a ověří, že nepotřebovalo žádný SQL příkaz.
+     */
+    private <T> T withoutStatements(Supplier<T> load) {
+        statistics.clear();
+        T result = load.get();
+        assertThat(statistics.getPrepareStatementCount()).as("Počet SQL příkazů").isZero();
+        return result;
+    }
+}
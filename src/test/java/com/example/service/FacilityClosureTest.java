@@ -0,0 +1,64 @@
+package com.example.service;
+
+import com.example.PostgresTest;
+import com.example.dto.ReservationView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Den uzavření přidaný mimo aplikaci: platí po znovunačtení katalogu sportovišť a rezervace, které na něj
+ * už připadají, se objeví ve výpisu ke kontrole. Data vznikají v transakci, která se na konci odvolá.
+ */
+class FacilityClosureTest extends PostgresTest {
+
+    private static final int FACILITY_ID = 2;
+    private static final LocalDate CLOSED_DAY = LocalDate.of(2034, 2, 14);
+
+    @Autowired
+    private FacilityService facilityService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void reloadCommittedCatalog() {
+        facilityService.reload();
+    }
+
+    @Test
+    void reloadAppliesNewClosureAndReportsExistingBookings() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Long userId = jdbcTemplate.queryForObject(
+                    "INSERT INTO users (email, name, password) VALUES ('uzavreni@example.com', 'Uzavření', 'x') RETURNING id",
+                    Long.class);
+            jdbcTemplate.update("INSERT INTO reservations (id, start_time, end_time, reservation_date, note, user_id, facility_id)"
+                    + " VALUES (-1, ?, ?, ?, 'před uzavřením', ?, ?)",
+                    CLOSED_DAY.atTime(10, 0), CLOSED_DAY.atTime(11, 0), CLOSED_DAY, userId, FACILITY_ID);
+            assertThat(facilityService.getSlotGrid(FACILITY_ID, CLOSED_DAY)).isNotEqualTo(SlotGrid.CLOSED);
+
+            jdbcTemplate.update("INSERT INTO facility_closures (facility_id, closure_date, reason) VALUES (?, ?, 'údržba')",
+                    FACILITY_ID, CLOSED_DAY);
+            facilityService.reload();
+
+            assertThat(facilityService.getSlotGrid(FACILITY_ID, CLOSED_DAY)).isEqualTo(SlotGrid.CLOSED);
+            assertThat(reservationService.getReservationsOnClosedDays())
+                    .extracting(ReservationView::id)
+                    .containsExactly(-1L);
+            status.setRollbackOnly();
+        });
+    }
+}
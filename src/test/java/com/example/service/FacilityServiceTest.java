@@ -0,0 +1,60 @@
+package com.example.service;
+
+import com.example.entity.Facility;
+import com.example.entity.FacilityOpeningHours;
+import com.example.repository.FacilityClosureRepository;
+import com.example.repository.FacilityOpeningHoursRepository;
+import com.example.repository.FacilityRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Načtení katalogu sportovišť s neplatnou provozní dobou: chybný den se zavře, zbytek katalogu funguje.
+ */
+class FacilityServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2031, 3, 3);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private final FacilityRepository facilityRepository = mock(FacilityRepository.class);
+    private final FacilityOpeningHoursRepository openingHoursRepository = mock(FacilityOpeningHoursRepository.class);
+    private final FacilityClosureRepository closureRepository = mock(FacilityClosureRepository.class);
+    private final FacilityService facilityService = new FacilityService(
+            facilityRepository, openingHoursRepository, closureRepository, Duration.ofMinutes(5));
+
+    @Test
+    void facilityWithTooManySlotsIsClosedWithoutBreakingOthers() {
+        // 6:00-23:00 po 15 minutách = 68 slotů, víc než se vejde do bitové mapy
+        Facility tooFine = new Facility(1, "Squash", LocalTime.of(6, 0), LocalTime.of(23, 0), 15);
+        Facility regular = new Facility(2, "Tělocvična", LocalTime.of(8, 0), LocalTime.of(20, 0), 30);
+        when(facilityRepository.findAll()).thenReturn(List.of(tooFine, regular));
+        when(openingHoursRepository.findAll()).thenReturn(List.of());
+        when(closureRepository.findAll()).thenReturn(List.of());
+
+        assertThat(facilityService.getSlotGrid(1, MONDAY)).isEqualTo(SlotGrid.CLOSED);
+        assertThat(facilityService.getSlotGrid(2, MONDAY).slotCount()).isEqualTo(24);
+        assertThat(facilityService.findAll()).extracting(Facility::getId).containsExactly(1, 2);
+    }
+
+    @Test
+    void invalidDayOverrideClosesOnlyThatDay() {
+        Facility regular = new Facility(2, "Tělocvična", LocalTime.of(8, 0), LocalTime.of(20, 0), 30);
+        FacilityOpeningHours monday = new FacilityOpeningHours(
+                1, regular, DayOfWeek.MONDAY.getValue(), false, LocalTime.of(6, 0), LocalTime.of(23, 0), 10);
+        when(facilityRepository.findAll()).thenReturn(List.of(regular));
+        when(openingHoursRepository.findAll()).thenReturn(List.of(monday));
+        when(closureRepository.findAll()).thenReturn(List.of());
+
+        assertThat(facilityService.getSlotGrid(2, MONDAY)).isEqualTo(SlotGrid.CLOSED);
+        assertThat(facilityService.getSlotGrid(2, TUESDAY).slotCount()).isEqualTo(24);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.service;
+
+import com.example.PostgresTest;
+import com.example.entity.Reservation;
+import com.example.exception.ReservationConflictException;
+import com.example.repository.FacilityRepository;
+import com.example.repository.ReservationRepository;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Souběžné rezervace stejných termínů: stovky zapisujících vláken startují naráz (CyclicBarrier)
+ * a na každý sporný slot smí uspět právě jedno z nich, ostatní dostanou konflikt.
+ */
+class ReservationConcurrencyTest extends PostgresTest {
+
+    private static final int WRITERS = 300;
+    private static final int SLOTS = 10;  // Hodinové sloty 8:00-18:00, na každý míří 30 vláken
+    private static final int FACILITY_ID = 1;
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (email, name, password) VALUES (?, 'Souběh', 'x')"
+                        + " ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name RETURNING id",
+                Long.class, "soubeh@example.com");
+    }
+
+    /**
+     * Cesta aplikace: zámek sportoviště a dne, kontrola překryvu a zápis v jedné transakci.
+     */
+    @Test
+    void serviceAcceptsExactlyOneBookingPerContendedSlot() throws Exception {
+        LocalDate day = LocalDate.of(2031, 3, 3);
+        int[] successes = race(slot -> {
+            LocalDateTime start = day.atTime(8, 0).plusHours(slot);
+            try {
+                reservationService.saveReservation(FACILITY_ID, start, start.plusHours(1), "souběh", userId);
+                return true;
+            } catch (ReservationConflictException e) {
+                return false;
+            }
+        });
+
+        assertThat(successes).containsOnly(1);
+        assertThat(countReservations(day)).isEqualTo(SLOTS);
+    }
+
+    /**
+     * Stejný souběh bez zámků aplikace, jako by požadavky obsloužily různé instance:
+     * překryv musí odmítnout samotná databáze (vylučovací omezení, SQLSTATE 23P01).
+     */
+    @Test
+    void databaseRejectsOverlapsWithoutApplicationLocks() throws Exception {
+        LocalDate day = LocalDate.of(2031, 3, 4);
+        int[] successes = race(slot -> {
+            LocalDateTime start = day.atTime(8, 0).plusHours(slot);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Reservation reservation = new Reservation();
+                    reservation.setStartTime(start);
+                    reservation.setEndTime(start.plusHours(1));
+                    reservation.setNote("souběh bez zámků");
+                    reservation.setFacility(facilityRepository.getReferenceById(FACILITY_ID));
+                    reservation.setUser(userRepository.getReferenceById(userId));
+                    reservationRepository.saveAndFlush(reservation);
+                });
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                assertThat(NestedExceptionUtils.getMostSpecificCause(e))
+                        .isInstanceOfSatisfying(SQLException.class,
+                                sqlException -> assertThat(sqlException.getSQLState()).isEqualTo(EXCLUSION_VIOLATION));
+                return false;
+            }
+        });
+
+        assertThat(successes).containsOnly(1);
+        assertThat(countReservations(day)).isEqualTo(SLOTS);
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        boolean book(int slot) throws Exception;
+    }
+
+    /**
+     * Spustí WRITERS pokusů naráz, vlákno i míří na slot i % SLOTS.
+     * @return Počet úspěšných rezervací pro každý slot.
+     */
+    private int[] race(Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(WRITERS);
+            for (int i = 0; i < WRITERS; i++) {
+                int slot = i % SLOTS;
+                Callable<Boolean> writer = () -> {
+                    start.await();
+                    return attempt.book(slot);
+                };
+                results.add(executor.submit(writer));
+            }
+
+            int[] successes = new int[SLOTS];
+            for (int i = 0; i < WRITERS; i++) {
+                if (results.get(i).get(2, TimeUnit.MINUTES)) {
+                    successes[i % SLOTS]++;
+                }
+            }
+            return successes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int countReservations(LocalDate day) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reservations WHERE facility_id = ? AND reservation_date = ?",
+                Integer.class, FACILITY_ID, day);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.service;
+
+import com.example.PostgresTest;
+import com.example.dto.ReservationCursor;
+import com.example.dto.ReservationFilter;
+import com.example.dto.ReservationView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Počet SQL příkazů výpisů rezervací podle statistik Hibernate (hibernate.generate_statistics).
+ * Výpis musí být jediný SELECT bez ohledu na počet řádků; dotaz navíc na každého uživatele nebo jeho role
+ * (N+1) test zachytí. Data vznikají v transakci, která se na konci odvolá.
+ */
+class ReservationListingStatementsTest extends PostgresTest {
+
+    private static final int MAX_STATEMENTS = 1;
+    private static final int USERS = 20;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate rollback;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        rollback = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void userReservationsAreOneStatement() {
+        withSeededData(userId -> {
+            List<ReservationView> reservations = countStatements(() -> reservationService.getUserReservations(userId));
+            assertThat(reservations).hasSizeGreaterThan(1);
+        });
+    }
+
+    @Test
+    void adminPagesAreOneStatementEach() {
+        withSeededData(userId -> {
+            ReservationFilter filter = new ReservationFilter(null, LocalDate.of(2033, 1, 1), LocalDate.of(2033, 12, 31), null);
+            Window<ReservationView> first = countStatements(() -> reservationService.getReservationPage(filter, null));
+            assertThat(first.size()).isGreaterThan(1);
+            assertThat(first.hasNext()).isTrue();
+
+            ReservationCursor after = ReservationCursor.of(first.getContent().get(first.size() - 1));
+            Window<ReservationView> second = countStatements(() -> reservationService.getReservationPage(filter, after));
+            assertThat(second.getContent()).isNotEmpty();
+        });
+    }
+
+    /**
+     * Provede výpis a ověří, že nepotřeboval víc než MAX_STATEMENTS příkazů.
+     */
+    private <T> T countStatements(Supplier<T> listing) {
+        statistics.clear();
+        T result = listing.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("Počet SQL příkazů výpisu")
+                .isLessThanOrEqualTo(MAX_STATEMENTS);
+        return result;
+    }
+
+    /**
+     * Naplní USERS uživatelů s rolí ROLE_USER a jejich rezervace v roce 2033 (každý uživatel několik
+     * na každém sportovišti), provede kontrolu s ID prvního uživatele a vše odvolá.
+     */
+    private void withSeededData(LongConsumer check) {
+        rollback.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO users (email, name, password)"
+                    + " SELECT 'vypis' || n || '@example.com', 'Výpis ' || n, 'x' FROM generate_series(1, ?) n", USERS);
+            jdbcTemplate.update("INSERT INTO users_roles (user_id, role_id)"
+                    + " SELECT u.id, r.id FROM users u, roles r"
+                    + " WHERE u.email LIKE 'vypis%@example.com' AND r.name = 'ROLE_USER'");
+            jdbcTemplate.update("INSERT INTO reservations (id, start_time, end_time, reservation_date, note, user_id, facility_id)"
+                    + " SELECT -row_number() OVER (), d + make_interval(mins => 480 + 30 * u.s::int),"
+                    + "        d + make_interval(mins => 510 + 30 * u.s::int), d::date, 'výpis', u.id, f"
+                    + " FROM generate_series(TIMESTAMP '2033-01-01', TIMESTAMP '2033-01-05', INTERVAL '1 day') d,"
+                    + "      generate_series(1, 3) f,"
+                    + "      (SELECT id, row_number() OVER (ORDER BY id) - 1 AS s FROM users"
+                    + "       WHERE email LIKE 'vypis%@example.com') u");
+            Long userId = jdbcTemplate.queryForObject(
+                    "SELECT min(id) FROM users WHERE email LIKE 'vypis%@example.com'", Long.class);
+            check.accept(userId);
+            status.setRollbackOnly();
+        });
+    }
+}
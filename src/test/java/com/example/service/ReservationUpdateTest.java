@@ -0,0 +1,177 @@
+package com.example.service;
+
+import com.example.PostgresTest;
+import com.example.exception.ReservationConflictException;
+import com.example.exception.ReservationVersionConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Úprava rezervace jedním podmíněným UPDATE: zvýšení verze, odmítnutí zastaralé verze a překryvu,
+ * který najde buď podmínka NOT EXISTS, nebo (při souběhu s jinou instancí) vylučovací omezení,
+ * a odmítnutí nečitelného formuláře.
+ */
+class ReservationUpdateTest extends PostgresTest {
+
+    private static final int FACILITY_ID = 3;
+    private static final LocalDate DAY = LocalDate.of(2034, 6, 5);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (email, name, password) VALUES (?, 'Úprava', 'x')"
+                        + " ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name RETURNING id",
+                Long.class, "uprava@example.com");
+    }
+
+    @AfterEach
+    void deleteReservations() {
+        jdbcTemplate.update("DELETE FROM reservations WHERE reservation_date = ?", DAY);
+    }
+
+    @Test
+    void updateMovesReservationAndBumpsVersion() {
+        long id = book(9, 10);
+
+        reservationService.updateReservation(id, 0, FACILITY_ID, DAY.atTime(11, 0), DAY.atTime(12, 0), "přesunuto");
+
+        assertThat(jdbcTemplate.queryForMap("SELECT start_time, note, version FROM reservations WHERE id = ?", id))
+                .containsEntry("start_time", Timestamp.valueOf(DAY.atTime(11, 0)))
+                .containsEntry("note", "přesunuto")
+                .containsEntry("version", 1L);
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        long id = book(9, 10);
+        reservationService.updateReservation(id, 0, FACILITY_ID, DAY.atTime(10, 0), DAY.atTime(11, 0), "první úprava");
+
+        assertThatThrownBy(() -> reservationService.updateReservation(
+                id, 0, FACILITY_ID, DAY.atTime(12, 0), DAY.atTime(13, 0), "zastaralý formulář"))
+                .isInstanceOf(ReservationVersionConflictException.class);
+        assertThat(version(id)).isEqualTo(1L);
+    }
+
+    @Test
+    void overlapWithCommittedReservationIsRejected() {
+        long id = book(9, 10);
+        book(12, 13);
+
+        assertThatThrownBy(() -> reservationService.updateReservation(
+                id, 0, FACILITY_ID, DAY.atTime(12, 30), DAY.atTime(13, 30), null))
+                .isInstanceOf(ReservationConflictException.class)
+                .isNotInstanceOf(ReservationVersionConflictException.class);
+        assertThat(version(id)).isZero();
+    }
+
+    /**
+     * Jiná instance aplikace (mimo zámky této instance) vloží překrývající se rezervaci a ještě ji nepotvrdila:
+     * NOT EXISTS v UPDATE ji nevidí, UPDATE počká na vylučovacím omezení a po jejím commitu selže (23P01).
+     */
+    @Test
+    void overlapFromConcurrentTransactionIsCaughtByExclusionConstraint() throws Exception {
+        long id = book(9, 10);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO reservations (id, start_time, end_time, reservation_date, note, user_id, facility_id)"
+                            + " VALUES (nextval('reservation_seq'), ?, ?, ?, 'jiná instance', ?, ?)",
+                    DAY.atTime(15, 0), DAY.atTime(16, 0), DAY, userId, FACILITY_ID);
+            inserted.countDown();
+            try {
+                Thread.sleep(500);  // UPDATE mezitím narazí na nepotvrzený řádek a čeká
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> reservationService.updateReservation(
+                id, 0, FACILITY_ID, DAY.atTime(15, 0), DAY.atTime(16, 0), null))
+                .isInstanceOf(ReservationConflictException.class)
+                .isNotInstanceOf(ReservationVersionConflictException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        otherNode.get(10, TimeUnit.SECONDS);
+        assertThat(version(id)).isZero();
+    }
+
+    /**
+     * Nečitelné datum nebo čas ve formuláři úpravy vrací 400 (uživatelská i administrátorská cesta).
+     */
+    @Test
+    void malformedDateOrTimeIsBadRequest() throws Exception {
+        long id = book(9, 10);
+        String admin = createAdmin();
+
+        mockMvc.perform(post("/reservations/update/" + id).param("facilityId", String.valueOf(FACILITY_ID))
+                        .param("date", "5. 6. 2034").param("startTime", "11:00").param("endTime", "12:00")
+                        .param("version", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/admin/reservations/update/" + id).param("facilityId", String.valueOf(FACILITY_ID))
+                        .param("date", DAY.toString()).param("startTime", "11").param("endTime", "12:00")
+                        .param("version", "0")
+                        .header(HttpHeaders.AUTHORIZATION, admin))
+                .andExpect(status().isBadRequest());
+        assertThat(version(id)).isZero();
+    }
+
+    private String createAdmin() {
+        jdbcTemplate.update("INSERT INTO roles (name) VALUES ('ROLE_ADMIN') ON CONFLICT (name) DO NOTHING");
+        jdbcTemplate.update("INSERT INTO users (email, name, password) VALUES ('uprava-admin@example.com', 'Úprava', ?)"
+                + " ON CONFLICT (email) DO NOTHING", passwordEncoder.encode("heslo-123"));
+        jdbcTemplate.update("INSERT INTO users_roles (user_id, role_id)"
+                + " SELECT u.id, r.id FROM users u, roles r WHERE u.email = 'uprava-admin@example.com' AND r.name = 'ROLE_ADMIN'"
+                + " AND NOT EXISTS (SELECT 1 FROM users_roles ur WHERE ur.user_id = u.id AND ur.role_id = r.id)");
+        return "Basic " + Base64.getEncoder().encodeToString(
+                "uprava-admin@example.com:heslo-123".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long book(int startHour, int endHour) {
+        LocalDateTime start = DAY.atTime(startHour, 0);
+        reservationService.saveReservation(FACILITY_ID, start, DAY.atTime(endHour, 0), null, userId);
+        return jdbcTemplate.queryForObject("SELECT id FROM reservations WHERE reservation_date = ? AND start_time = ?"
+                + " AND facility_id = ?", Long.class, DAY, start, FACILITY_ID);
+    }
+
+    private long version(long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM reservations WHERE id = ?", Long.class, id);
+    }
+}
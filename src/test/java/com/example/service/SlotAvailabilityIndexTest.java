@@ -0,0 +1,109 @@
+package com.example.service;
+
+import com.example.entity.Facility;
+import com.example.entity.Reservation;
+import com.example.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Index obsazenosti: načtení z databáze, zápisy add/evict a ochrana před uložením stavu načteného
+ * souběžně se zápisem.
+ */
+class SlotAvailabilityIndexTest {
+
+    private static final int FACILITY_ID = 1;
+    private static final LocalDate DAY = LocalDate.of(2031, 3, 3);
+    private static final SlotGrid GRID = SlotGrid.of(LocalTime.of(8, 0), LocalTime.of(20, 0), 30);
+
+    private final ReservationRepository repository = mock(ReservationRepository.class);
+    private final FacilityService facilityService = mock(FacilityService.class);
+    private SlotAvailabilityIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        when(facilityService.getSlotGrid(any(), any())).thenReturn(GRID);
+        index = new SlotAvailabilityIndex(repository, facilityService, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void loadsOnceAndKeepsMaskUpToDateOnAdd() {
+        when(repository.findByReservationDateAndFacilityId(DAY, FACILITY_ID)).thenReturn(List.of(reservation(9, 0, 10, 0)));
+
+        assertThat(index.occupiedSlots(FACILITY_ID, DAY)).isEqualTo(0b1100L);
+        index.add(reservation(8, 0, 8, 30));
+
+        assertThat(index.occupiedSlots(FACILITY_ID, DAY)).isEqualTo(0b1101L);
+        verify(repository, times(1)).findByReservationDateAndFacilityId(DAY, FACILITY_ID);
+    }
+
+    @Test
+    void addToUnloadedKeyDoesNotLoad() {
+        index.add(reservation(8, 0, 8, 30));
+
+        verify(repository, times(0)).findByReservationDateAndFacilityId(any(), any());
+    }
+
+    @Test
+    void evictForcesReload() {
+        when(repository.findByReservationDateAndFacilityId(DAY, FACILITY_ID))
+                .thenReturn(List.of(reservation(9, 0, 10, 0)))
+                .thenReturn(List.of());
+
+        assertThat(index.occupiedSlots(FACILITY_ID, DAY)).isEqualTo(0b1100L);
+        index.evict(reservation(9, 0, 10, 0));
+
+        assertThat(index.occupiedSlots(FACILITY_ID, DAY)).isZero();
+        verify(repository, times(2)).findByReservationDateAndFacilityId(DAY, FACILITY_ID);
+    }
+
+    @Test
+    void loadRacingWithWriteIsNotCached() {
+        // Během načítání proběhne zápis: načtený stav se vrátí, ale do indexu se neuloží
+        when(repository.findByReservationDateAndFacilityId(DAY, FACILITY_ID))
+                .thenAnswer(invocation -> {
+                    index.evict(new SlotAvailabilityIndex.SlotKey(FACILITY_ID, DAY));
+                    return List.of(reservation(9, 0, 9, 30));
+                })
+                .thenReturn(List.of(reservation(9, 0, 9, 30), reservation(12, 0, 12, 30)));
+
+        assertThat(index.occupiedSlots(FACILITY_ID, DAY)).isEqualTo(0b100L);
+        assertThat(index.occupiedSlots(FACILITY_ID, DAY)).isEqualTo(0b100L | 1L << 8);
+        verify(repository, times(2)).findByReservationDateAndFacilityId(DAY, FACILITY_ID);
+    }
+
+    @Test
+    void versionDependsOnlyOnGridAndOccupancy() {
+        assertThat(SlotAvailabilityIndex.version(GRID, 0b1100L))
+                .isEqualTo(SlotAvailabilityIndex.version(SlotGrid.of(LocalTime.of(8, 0), LocalTime.of(20, 0), 30), 0b1100L))
+                .isNotEqualTo(SlotAvailabilityIndex.version(GRID, 0b1101L))
+                .isNotEqualTo(SlotAvailabilityIndex.version(SlotGrid.of(LocalTime.of(8, 0), LocalTime.of(20, 0), 60), 0b1100L));
+
+        when(repository.findByReservationDateAndFacilityId(DAY, FACILITY_ID)).thenReturn(List.of(reservation(9, 0, 10, 0)));
+        assertThat(index.version(FACILITY_ID, DAY)).isEqualTo(SlotAvailabilityIndex.version(GRID, 0b1100L));
+    }
+
+    private static Reservation reservation(int startHour, int startMinute, int endHour, int endMinute) {
+        Facility facility = new Facility();
+        facility.setId(FACILITY_ID);
+        Reservation reservation = new Reservation();
+        reservation.setFacility(facility);
+        reservation.setReservationDate(DAY);
+        reservation.setStartTime(DAY.atTime(startHour, startMinute));
+        reservation.setEndTime(DAY.atTime(endHour, endMinute));
+        return reservation;
+    }
+}
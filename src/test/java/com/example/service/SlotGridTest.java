@@ -0,0 +1,69 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bitové mapy slotů: výpočet masky rezervace, volné sloty a popisky.
+ */
+class SlotGridTest {
+
+    private static final LocalDate DAY = LocalDate.of(2031, 3, 3);
+    private static final SlotGrid HALF_HOURS = SlotGrid.of(LocalTime.of(8, 0), LocalTime.of(20, 0), 30);  // 24 slotů
+
+    @Test
+    void reservationSpanningSeveralSlotsSetsAllOfThem() {
+        long mask = HALF_HOURS.maskOf(DAY.atTime(9, 0), DAY.atTime(10, 30));
+
+        assertThat(mask).isEqualTo(0b11100L);
+        assertThat(HALF_HOURS.slotLabels(mask)).containsExactly("09:00", "09:30", "10:00");
+    }
+
+    @Test
+    void partialSlotsAreOccupiedWhole() {
+        // 9:10-9:40 zasahuje do slotů 9:00 a 9:30
+        assertThat(HALF_HOURS.maskOf(DAY.atTime(9, 10), DAY.atTime(9, 40))).isEqualTo(0b1100L);
+        // Konec přesně na hranici slotu další slot neobsadí
+        assertThat(HALF_HOURS.maskOf(DAY.atTime(9, 10), DAY.atTime(9, 30))).isEqualTo(0b100L);
+        // Část mimo provozní dobu se ořízne
+        assertThat(HALF_HOURS.maskOf(DAY.atTime(7, 0), DAY.atTime(8, 30))).isEqualTo(0b1L);
+        assertThat(HALF_HOURS.maskOf(DAY.atTime(19, 45), DAY.atTime(21, 0))).isEqualTo(1L << 23);
+        assertThat(HALF_HOURS.maskOf(DAY.atTime(20, 0), DAY.atTime(21, 0))).isZero();
+    }
+
+    @Test
+    void sixtyFourthSlotUsesHighestBit() {
+        SlotGrid full = SlotGrid.of(LocalTime.of(6, 0), LocalTime.of(22, 0), 15);  // 64 slotů
+        assertThat(full.slotCount()).isEqualTo(SlotGrid.MAX_SLOTS);
+
+        long last = full.maskOf(DAY.atTime(21, 45), DAY.atTime(22, 0));
+        assertThat(last).isEqualTo(Long.MIN_VALUE);
+        assertThat(full.slotLabels(last)).containsExactly("21:45");
+        assertThat(full.maskOf(DAY.atTime(6, 0), DAY.atTime(22, 0))).isEqualTo(-1L);
+
+        List<String> free = full.freeSlots(last);
+        assertThat(free).hasSize(63).doesNotContain("21:45").startsWith("06:00").endsWith("21:30");
+        assertThat(full.freeSlots(-1L)).isEmpty();
+        assertThat(full.freeString(last)).hasSize(64).endsWith("10");
+    }
+
+    @Test
+    void freeSlotsIgnoreBitsOutsideTheDay() {
+        long outside = 1L << 40;
+        assertThat(HALF_HOURS.freeSlots(outside)).hasSize(24);
+        assertThat(HALF_HOURS.freeSlots(0b1L)).hasSize(23).first().isEqualTo("08:30");
+        assertThat(HALF_HOURS.slotLabels(outside)).isEmpty();
+    }
+
+    @Test
+    void closedDayHasNoSlots() {
+        assertThat(SlotGrid.CLOSED.freeSlots(0L)).isEmpty();
+        assertThat(SlotGrid.CLOSED.maskOf(DAY.atTime(9, 0), DAY.atTime(10, 0))).isZero();
+        assertThat(SlotGrid.CLOSED.contains(DAY.atTime(9, 0), DAY.atTime(10, 0))).isFalse();
+    }
+}
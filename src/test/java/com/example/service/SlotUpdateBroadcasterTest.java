@@ -0,0 +1,52 @@
+package com.example.service;
+
+import com.example.exception.SubscriptionLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Počítadlo spojení odběru změn slotů: selhání při přihlášení odběru ho nesmí trvale zvýšit.
+ */
+class SlotUpdateBroadcasterTest {
+
+    private static final int FACILITY_ID = 1;
+    private static final LocalDate DAY = LocalDate.of(2031, 3, 3);
+
+    private final SlotAvailabilityIndex slotIndex = mock(SlotAvailabilityIndex.class);
+    private final FacilityService facilityService = mock(FacilityService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SlotUpdateBroadcaster broadcaster = new SlotUpdateBroadcaster(slotIndex, facilityService, registry,
+            Duration.ofMinutes(1), Duration.ofMinutes(1), 1, 16, 1);
+
+    @AfterEach
+    void shutdown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void failedSubscriptionDoesNotLeakConnection() {
+        when(facilityService.getSlotGrid(FACILITY_ID, DAY)).thenReturn(SlotGrid.of(LocalTime.of(8, 0), LocalTime.of(20, 0), 30));
+        when(slotIndex.occupiedSlots(FACILITY_ID, DAY))
+                .thenThrow(new DataAccessResourceFailureException("databáze nedostupná"))
+                .thenReturn(0L);
+
+        assertThatThrownBy(() -> broadcaster.subscribe(FACILITY_ID, DAY)).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(registry.get("sse.connections").gauge().value()).isZero();
+
+        // Limit je jedno spojení: po selhání se odběr přihlásí, další už je odmítnut
+        assertThat(broadcaster.subscribe(FACILITY_ID, DAY)).isNotNull();
+        assertThat(registry.get("sse.connections").gauge().value()).isEqualTo(1);
+        assertThatThrownBy(() -> broadcaster.subscribe(FACILITY_ID, DAY)).isInstanceOf(SubscriptionLimitException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.service;
+
+import com.example.PostgresTest;
+import com.example.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Plnění cache identit při přihlášení: identita se načte až po ověření hesla, neúspěšný pokus cache nemění.
+ */
+class UserIdentityCacheTest extends PostgresTest {
+
+    private static final String EMAIL = "cache-prihlaseni@example.com";
+    private static final String PASSWORD = "heslo-123";
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationConfiguration authenticationConfiguration;
+
+    private AuthenticationManager authenticationManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        authenticationManager = authenticationConfiguration.getAuthenticationManager();
+        if (userService.findUserByEmail(EMAIL) == null) {
+            userService.saveUser(new UserDto(null, "Cache", "Přihlášení", EMAIL, PASSWORD));
+        }
+        userIdentityCache.invalidate(EMAIL);
+    }
+
+    @Test
+    void failedLoginDoesNotCacheIdentity() {
+        assertThatThrownBy(() -> authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, "spatne-heslo")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        long misses = userIdentityCache.stats().missCount();
+        userIdentityCache.get(EMAIL);
+        assertThat(userIdentityCache.stats().missCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    void successfulLoginCachesIdentity() {
+        authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, PASSWORD));
+
+        long hits = userIdentityCache.stats().hitCount();
+        assertThat(userIdentityCache.get(EMAIL).email()).isEqualTo(EMAIL);
+        assertThat(userIdentityCache.stats().hitCount()).isEqualTo(hits + 1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.service;
+
+import com.example.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Import uživatelů při přetíženém hashování hesel: počká na volné místo ve frontě místo toho,
+ * aby skončil chybou s částí dávek už uloženou.
+ */
+class UserImportServiceTest extends PostgresTest {
+
+    private static final String EMAIL = "import-fronta@example.com";
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ThreadPoolExecutor passwordHashingExecutor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void cleanUp() {
+        release.countDown();
+        jdbcTemplate.update("DELETE FROM users_roles WHERE user_id IN (SELECT id FROM users WHERE email = ?)", EMAIL);
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+    }
+
+    private void block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void importWaitsForHashingQueueInsteadOfFailing() throws Exception {
+        while (passwordHashingExecutor.getActiveCount() < passwordHashingExecutor.getMaximumPoolSize()
+                || passwordHashingExecutor.getQueue().remainingCapacity() > 0) {
+            try {
+                passwordHashingExecutor.execute(this::block);
+            } catch (RejectedExecutionException e) {
+                Thread.sleep(10);
+            }
+        }
+        String csv = UserImportService.CSV_HEADER + "\nJana,Fronta," + EMAIL + ",heslo-123\n";
+
+        CompletableFuture<UserImportService.ImportResult> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return userImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(300);
+        assertThat(result).isNotDone();
+
+        release.countDown();
+        assertThat(result.get(30, TimeUnit.SECONDS))
+                .isEqualTo(new UserImportService.ImportResult(1, 1, 0, 0));
+    }
+}